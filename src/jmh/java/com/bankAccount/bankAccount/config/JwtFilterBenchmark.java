@@ -0,0 +1,63 @@
+package com.bankAccount.bankAccount.config;
+
+import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JwtFilter for a repeated bearer token with and without the verified-token
+ * cache. The user lookup is stubbed so only the token handling is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtUtil jwtUtil;
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(cacheEnabled, 10_000);
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return new UserDetail(1L, 0, email, "", List.of());
+            }
+        };
+        jwtFilter = new JwtFilter(jwtUtil, userDetailsService, new TokenVersionRegistry(idUser -> 0, 10_000, Duration.ofMinutes(1)));
+
+        request = new MockHttpServletRequest("GET", "/api/accounts/get-balance-by-account/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("john.doe@example.com", 1L, List.of(), 0));
+    }
+
+    @Benchmark
+    public void filterRepeatedToken(Blackhole blackhole) throws Exception {
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        SecurityContextHolder.clearContext();
+    }
+}
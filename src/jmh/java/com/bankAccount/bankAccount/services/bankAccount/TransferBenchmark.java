@@ -0,0 +1,78 @@
+package com.bankAccount.bankAccount.services.bankAccount;
+
+import com.bankAccount.bankAccount.BankAccountApplication;
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of transferMoney when half of the threads move money from A to B
+ * and the other half from B to A, the case that deadlocks without ordered locks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class TransferBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BankAccountService bankAccountService;
+    private long firstId;
+    private long secondId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankAccountApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:transferbench;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "spring.jpa.show-sql=false",
+                        "bank.transactions.store=memory",
+                        "bank.engine.enabled=false")
+                .run();
+        bankAccountService = context.getBean(BankAccountService.class);
+
+        // Saldos suficientes para que ninguna transferencia falle por fondos durante la medición
+        BankAccountRepository bankAccountRepository = context.getBean(BankAccountRepository.class);
+        firstId = bankAccountRepository.save(BankAccount.builder().numberAccount("BENCH-A").balance(1_000_000_000_000L).type("Savings").build()).getIdAccount();
+        secondId = bankAccountRepository.save(BankAccount.builder().numberAccount("BENCH-B").balance(1_000_000_000_000L).type("Savings").build()).getIdAccount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Direction {
+
+        boolean forward;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            forward = threadParams.getThreadIndex() % 2 == 0;
+        }
+    }
+
+    @Benchmark
+    public BankAccountResponseDTO oppositeTransfers(Direction direction) {
+        return direction.forward
+                ? bankAccountService.transferMoney(firstId, secondId, 1L)
+                : bankAccountService.transferMoney(secondId, firstId, 1L);
+    }
+}
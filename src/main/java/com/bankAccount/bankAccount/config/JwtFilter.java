@@ -1,14 +1,17 @@
 package com.bankAccount.bankAccount.config;
 
 import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +27,10 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${bank.auth.stateless:false}")
+    private boolean stateless;
 
 
     @Override
@@ -37,23 +45,39 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Validar que el JWT sea válido
+        // Se verifica la firma una sola vez y se leen todos los claims del mismo resultado
         String jwt = authHeader.substring(7);
+        Optional<JwtPrincipal> principal = this.jwtUtil.decode(jwt);
 
-        if (!this.jwtUtil.isTokenValid(jwt)) {
+        if (principal.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Obtener el usuario
-        String email = this.jwtUtil.getEmailByUser(jwt);
+        JwtPrincipal claims = principal.get();
 
-        UserDetails user = this.userDetailsService.loadUserByUsername(email);
+        // Tokens emitidos antes de la última revocación del usuario ya no son válidos
+        if (claims.id() == null || !this.tokenVersionRegistry.isCurrent(claims.id(), claims.version())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        // Cargar al usuario en el contexto de seguridad.
-        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                user.getUsername(), user.getPassword(), user.getAuthorities()
-        );
+        UsernamePasswordAuthenticationToken authenticationToken;
+
+        if (this.stateless) {
+            // El principal se arma solo con los claims, sin consultar la base de datos
+            authenticationToken = new UsernamePasswordAuthenticationToken(
+                    claims, null, claims.authorities().stream().map(SimpleGrantedAuthority::new).toList()
+            );
+        } else {
+            // Obtener el usuario
+            UserDetails user = this.userDetailsService.loadUserByUsername(claims.email());
+
+            // Cargar al usuario en el contexto de seguridad.
+            authenticationToken = new UsernamePasswordAuthenticationToken(
+                    user, user.getPassword(), user.getAuthorities()
+            );
+        }
 
         authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -0,0 +1,16 @@
+package com.bankAccount.bankAccount.config;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified.
+ */
+public record JwtPrincipal(String email, Long id, List<String> authorities, int version, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
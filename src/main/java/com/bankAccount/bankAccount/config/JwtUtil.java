@@ -1,51 +1,81 @@
 package com.bankAccount.bankAccount.config;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
     private static final String SECRET_KEY = "secret_training_key_5T3V3N";
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24;
     private static final Algorithm ALGORITHM = Algorithm.HMAC256(SECRET_KEY);
+    // El verificador es inmutable y seguro entre hilos, así que se construye una sola vez
+    private static final JWTVerifier VERIFIER = JWT.require(ALGORITHM).build();
 
-    public String generateToken(String email, long id) {
+    // null cuando bank.jwt.cache.enabled=false
+    private final VerifiedTokenCache tokenCache;
+
+    public JwtUtil() {
+        this(false, 0);
+    }
+
+    @Autowired
+    public JwtUtil(@Value("${bank.jwt.cache.enabled:false}") boolean cacheEnabled,
+                   @Value("${bank.jwt.cache.max-entries:100000}") long cacheMaxEntries) {
+        this.tokenCache = cacheEnabled ? new VerifiedTokenCache(cacheMaxEntries) : null;
+    }
+
+    // El token describe al usuario por completo para que el modo sin estado no consulte la base de datos
+    public String generateToken(String email, long id, List<String> authorities, int version) {
         return JWT.create()
                 .withSubject(email)
                 .withClaim("id", id)
+                .withClaim("authorities", authorities)
+                .withClaim("ver", version)
                 .withIssuer("javaSS")
                 .withIssuedAt(new Date(System.currentTimeMillis()))
                 .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .sign(ALGORITHM);
     }
 
-    public boolean isTokenValid(String jwt) {
-        try {
-            JWT.require(ALGORITHM)
-                    .build()
-                    .verify(jwt);
-            return true;
-        } catch (JWTVerificationException e) {
-            return false;
-        }
+    // Verifica una sola vez y devuelve todos los claims; con la cache activa un token repetido no se vuelve a verificar
+    public Optional<JwtPrincipal> decode(String jwt) {
+        return tokenCache != null ? tokenCache.get(jwt, this::verify) : verify(jwt);
     }
 
-    public String getEmailByUser(String jwt) {
-        return JWT.require(ALGORITHM)
-                .build()
-                .verify(jwt)
-                .getSubject();
+    // Actuator registra los aciertos y fallos de la cache como cache.gets{cache="jwt.tokens"}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (tokenCache != null) tokenCache.bindTo(registry, "jwt.tokens");
     }
 
-    public Long getIdByToken(String jwt) {
-        return JWT.require(ALGORITHM)
-                .build()
-                .verify(jwt)
-                .getClaim("id").asLong();
-    }
+    private Optional<JwtPrincipal> verify(String jwt) {
+        try {
+            DecodedJWT decoded = VERIFIER.verify(jwt);
+            // Los tokens emitidos antes de estos claims se leen como versión 0 y sin roles
+            List<String> authorities = decoded.getClaim("authorities").asList(String.class);
+            Integer version = decoded.getClaim("ver").asInt();
 
+            return Optional.of(new JwtPrincipal(
+                    decoded.getSubject(),
+                    decoded.getClaim("id").asLong(),
+                    authorities != null ? authorities : List.of(),
+                    version != null ? version : 0,
+                    decoded.getExpiresAtAsInstant()
+            ));
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,204 @@
+package com.bankAccount.bankAccount.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles requests before JwtFilter and before any password hashing. Every
+ * request spends a token from its client IP bucket; login and registration
+ * also spend one from a stricter per-IP bucket and one from the bucket of the
+ * email in the body. An empty bucket answers 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CREDENTIAL_PATHS = Set.of("/api/auth/login", "/api/users/register");
+    // Los cuerpos de login y registro son pequeños; uno mayor no se lee para buscar el email
+    private static final int MAX_CREDENTIAL_BODY = 8 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter credentialIpLimiter;
+    private final RateLimiter emailLimiter;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${bank.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${bank.ratelimit.max-keys:100000}") long maxKeys,
+                           @Value("${bank.ratelimit.idle-timeout:10m}") Duration idleTimeout,
+                           @Value("${bank.ratelimit.ip.capacity:200}") long ipCapacity,
+                           @Value("${bank.ratelimit.ip.per-minute:1200}") long ipPerMinute,
+                           @Value("${bank.ratelimit.login.ip.capacity:10}") long loginIpCapacity,
+                           @Value("${bank.ratelimit.login.ip.per-minute:30}") long loginIpPerMinute,
+                           @Value("${bank.ratelimit.login.email.capacity:5}") long emailCapacity,
+                           @Value("${bank.ratelimit.login.email.per-minute:10}") long emailPerMinute) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimiter = new RateLimiter("bank.ratelimit.ip", ipCapacity, ipPerMinute, maxKeys, idleTimeout);
+        this.credentialIpLimiter = new RateLimiter("bank.ratelimit.login.ip", loginIpCapacity, loginIpPerMinute, maxKeys, idleTimeout);
+        this.emailLimiter = new RateLimiter("bank.ratelimit.login.email", emailCapacity, emailPerMinute, maxKeys, idleTimeout);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Detrás de un proxy, server.forward-headers-strategy hace que getRemoteAddr devuelva la IP real
+        String ip = request.getRemoteAddr();
+
+        long wait = ipLimiter.tryAcquire(ip);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, try again later.", wait);
+            return;
+        }
+
+        if (!isCredentialRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        wait = credentialIpLimiter.tryAcquire(ip);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, try again later.", wait);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_CREDENTIAL_BODY + 1);
+        if (body.length > MAX_CREDENTIAL_BODY) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large.", 0);
+            return;
+        }
+
+        String email = readEmail(body);
+        if (email != null) {
+            wait = emailLimiter.tryAcquire(email);
+            if (wait > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, try again later.", wait);
+                return;
+            }
+        }
+
+        // El cuerpo ya se leyó, así que el controlador recibe una copia
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private static boolean isCredentialRequest(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "POST".equals(request.getMethod()) && CREDENTIAL_PATHS.contains(path);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Un JSON inválido lo rechaza el controlador con 400
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long waitNanos) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("success", false);
+        body.put("httpStatus", status);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        }
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // El cuerpo ya está en memoria, así que se avisa al momento de que está disponible y completo
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankAccount.bankAccount.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client IP or email. Each bucket holds up to
+ * {@code capacity} tokens and refills at {@code perMinute} tokens per minute.
+ * The key table is bounded and idle buckets are evicted, so a flood of
+ * distinct keys cannot grow memory without limit. {@code property} is the
+ * configuration prefix of the limit, used to name it in validation errors.
+ */
+public class RateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    // Nanosegundos para reponer un token y para llenar el cubo completo
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    public RateLimiter(String property, long capacity, long perMinute, long maxKeys, Duration idleTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(property + ".capacity must be greater than 0, got " + capacity);
+        }
+        if (perMinute <= 0) {
+            throw new IllegalArgumentException(property + ".per-minute must be greater than 0, got " + perMinute);
+        }
+
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.burstNanos = intervalNanos * capacity;
+
+        // Un cubo no se descarta antes de haberse llenado, así que expulsarlo nunca regala tokens
+        long idleNanos = Math.max(idleTimeout.toNanos(), burstNanos);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 when the request may proceed,
+     * otherwise the nanoseconds until the next token is available.
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        return buckets.get(key, k -> new Bucket(now)).tryAcquire(now);
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Single-long token bucket (GCRA): the state is the instant at which the
+     * bucket would be full again. Taking a token pushes it forward by one
+     * interval; the request is rejected when that instant is more than a full
+     * bucket ahead of now. Updates are a CAS loop, no locks.
+     */
+    private final class Bucket {
+
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        private long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long next = base + intervalNanos;
+                long excess = next - now - burstNanos;
+
+                if (excess > 0) return excess;
+                if (fullAt.compareAndSet(current, next)) return 0;
+            }
+        }
+    }
+}
@@ -30,6 +30,9 @@ public class SecurityConfig implements WebMvcConfigurer {
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     private static final String[] AUTH_WHITE_LIST = {
             "/h2-console/**",
             "/api/users/register",
@@ -50,7 +53,9 @@ public class SecurityConfig implements WebMvcConfigurer {
                 .userDetailsService(userDetailsService)
                 .httpBasic(Customizer.withDefaults())
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
-                .addFilterBefore(jwtFilter, BasicAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, BasicAuthenticationFilter.class)
+                // El límite se aplica antes de verificar tokens o hashear contraseñas
+                .addFilterBefore(rateLimitFilter, JwtFilter.class);
 
         return http.build();
     }
@@ -7,7 +7,25 @@ import java.util.Collection;
 
 public class UserDetail extends User {
 
-    public UserDetail(String username, String password, Collection<? extends GrantedAuthority> authorities) {
+    // Se guarda el id para emitir el token sin volver a consultar users
+    private final long idUser;
+    private final int tokenVersion;
+
+    public UserDetail(long idUser, int tokenVersion, String username, String password, Collection<? extends GrantedAuthority> authorities) {
         super(username, password, authorities);
+        this.idUser = idUser;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public long getIdUser() {
+        return idUser;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public UserDetail copy() {
+        return new UserDetail(idUser, tokenVersion, getUsername(), getPassword(), getAuthorities());
     }
 }
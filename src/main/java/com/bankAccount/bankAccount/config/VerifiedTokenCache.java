@@ -0,0 +1,90 @@
+package com.bankAccount.bankAccount.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Remembers tokens whose signature was already verified, so a repeated bearer
+ * token skips HMAC verification and claim parsing. Entries are keyed by the
+ * SHA-256 of the token and never outlive the token's exp claim.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, JwtPrincipal> principals;
+
+    public VerifiedTokenCache(long maxEntries) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<JwtPrincipal> get(String jwt, Function<String, Optional<JwtPrincipal>> verifier) {
+        String key = digest(jwt);
+        JwtPrincipal cached = principals.getIfPresent(key);
+        if (cached != null) return Optional.of(cached);
+
+        // Los tokens inválidos no se guardan para que no puedan llenar la cache
+        Optional<JwtPrincipal> verified = verifier.apply(jwt);
+        verified.filter(principal -> principal.expiresAt() != null)
+                .ifPresent(principal -> principals.put(key, principal));
+        return verified;
+    }
+
+    public CacheStats stats() {
+        return principals.stats();
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, principals, name);
+    }
+
+    public long size() {
+        return principals.estimatedSize();
+    }
+
+    private static String digest(String jwt) {
+        byte[] hash = SHA_256.get().digest(jwt.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static final class UntilTokenExpires implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
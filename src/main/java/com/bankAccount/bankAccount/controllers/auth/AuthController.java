@@ -4,12 +4,16 @@ import com.bankAccount.bankAccount.dto.auth.AuthRequestDTO;
 import com.bankAccount.bankAccount.dto.auth.AuthResponseDTO;
 import com.bankAccount.bankAccount.services.auth.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -18,14 +22,17 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(@RequestBody AuthRequestDTO request) {
-        AuthResponseDTO response = authService.authenticate(request);
-
-        if (response.isSuccess()) {
-            return ResponseEntity.ok(response); // 200 OK con el DTO
-        } else {
-            return ResponseEntity.badRequest().body(response); // 400 Bad Request con el DTO
-        }
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(@RequestBody AuthRequestDTO request) {
+        // El hilo de Tomcat se libera mientras se verifica la contraseña
+        return authService.authenticateAsync(request).thenApply(response -> {
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response); // 200 OK con el DTO
+            } else if (response.getHttpStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+            } else {
+                return ResponseEntity.badRequest().body(response); // 400 Bad Request con el DTO
+            }
+        });
     }
 
 }
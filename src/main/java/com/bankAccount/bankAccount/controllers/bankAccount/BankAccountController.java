@@ -1,24 +1,63 @@
 package com.bankAccount.bankAccount.controllers.bankAccount;
 
+import com.bankAccount.bankAccount.config.JwtPrincipal;
+import com.bankAccount.bankAccount.config.UserDetail;
+import com.bankAccount.bankAccount.dto.bankAccount.AmountRequestDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.TransferRequestDTO;
 import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.services.bankAccount.AccountShardEngine;
 import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.bankAccount.bankAccount.services.idempotency.IdempotencyService;
+import com.bankAccount.bankAccount.utils.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class BankAccountController {
 
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
     @Autowired
     BankAccountService bankAccountService;
 
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${bank.export.flush-size:1000}")
+    int exportFlushSize;
+
+    @Value("${bank.accounts.max-page-size:200}")
+    int maxPageSize;
+
+    // Solo existe cuando bank.engine.enabled=true
+    @Autowired(required = false)
+    AccountShardEngine accountShardEngine;
+
     @GetMapping("/get-accounts-by-user/{id}")
-    private List<BankAccount> getAllAccountsByUser(@PathVariable long id) {
-        return bankAccountService.getAllAccountsByUser(id);
+    private List<BankAccountDTO> getAllAccountsByUser(@PathVariable long id,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        // El tamaño de página se acota para que el costo no dependa de cuántas cuentas tenga el usuario
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        return bankAccountService.getAllAccountsByUser(id, Math.max(page, 0), pageSize);
     }
 
     @GetMapping("/get-balance-by-account/{id}")
@@ -26,21 +65,72 @@ public class BankAccountController {
         return bankAccountService.getBalanceByAccount(id);
     }
 
+    @GetMapping("/export")
+    private ResponseEntity<StreamingResponseBody> exportAccounts() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out, exportFlushSize)) {
+                bankAccountService.exportAccounts(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("/create/{idUser}")
     private BankAccountResponseDTO createAccount(@PathVariable long idUser, @RequestBody BankAccount account) {
         return bankAccountService.createAccount(idUser, account);
     }
 
+    @PostMapping("/create-bulk/{idUser}")
+    private BankAccountResponseDTO createAccounts(@PathVariable long idUser, @RequestBody List<BankAccount> accounts) {
+        return bankAccountService.createAccounts(idUser, accounts);
+    }
+
     @PostMapping("/deposit/{id}")
-    private BankAccountResponseDTO depositMoney(@PathVariable long id, @RequestBody JsonNode body) {
-        double amount = body.get("amount").asDouble();
-        return bankAccountService.depositMoney(id, amount);
+    private ResponseEntity<?> depositMoney(@PathVariable long id, @RequestBody AmountRequestDTO body,
+                                                @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                                HttpServletRequest request, Principal principal) {
+        return idempotent(idempotencyKey, request, principal, body, () -> {
+            if (accountShardEngine != null) {
+                return accountShardEngine.deposit(id, body.getAmount()).join();
+            }
+            return bankAccountService.depositMoney(id, body.getAmount());
+        });
     }
 
     @PostMapping("/withdraw/{id}")
-    private BankAccountResponseDTO withdrawMoney(@PathVariable long id, @RequestBody JsonNode body) {
-        double amount = body.get("amount").asDouble();
-        return bankAccountService.withdrawMoney(id, amount);
+    private ResponseEntity<?> withdrawMoney(@PathVariable long id, @RequestBody AmountRequestDTO body,
+                                                 @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                                 HttpServletRequest request, Principal principal) {
+        return idempotent(idempotencyKey, request, principal, body, () -> {
+            if (accountShardEngine != null) {
+                return accountShardEngine.withdraw(id, body.getAmount()).join();
+            }
+            return bankAccountService.withdrawMoney(id, body.getAmount());
+        });
+    }
+
+    @PostMapping("/transfer")
+    private ResponseEntity<?> transferMoney(@RequestBody TransferRequestDTO body,
+                                                 @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                                 HttpServletRequest request, Principal principal) {
+        return idempotent(idempotencyKey, request, principal, body, () -> {
+            if (accountShardEngine != null) {
+                return accountShardEngine.transfer(body.getFromId(), body.getToId(), body.getAmount());
+            }
+            return bankAccountService.transferMoney(body.getFromId(), body.getToId(), body.getAmount());
+        });
+    }
+
+    @PostMapping("/batch")
+    private ResponseEntity<?> applyBatch(@RequestBody List<BatchOperationDTO> operations,
+                                            @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
+                                            HttpServletRequest request, Principal principal) {
+        return idempotent(idempotencyKey, request, principal, operations, () -> {
+            if (accountShardEngine != null) {
+                return accountShardEngine.applyBatch(operations);
+            }
+            return bankAccountService.applyBatch(operations);
+        });
     }
 
     @PutMapping("/update/{id}")
@@ -53,4 +143,26 @@ public class BankAccountController {
         return  bankAccountService.deleteAccount(id);
     }
 
+    // Sin cabecera la operación se ejecuta siempre; con cabecera un reintento devuelve la respuesta original
+    private <T> ResponseEntity<?> idempotent(String idempotencyKey, HttpServletRequest request, Principal principal, Object body,
+                                             Supplier<T> operation) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(operation.get());
+        }
+        String requestHash = idempotencyService.requestHash(request.getMethod(), request.getRequestURI(), body);
+        String response = idempotencyService.execute(principalId(principal) + ":" + idempotencyKey, requestHash, operation);
+
+        // El cuerpo ya viene serializado y se envía tal cual
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    // Las claves son de cada usuario: dos clientes con la misma clave no comparten respuestas
+    private String principalId(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            if (authentication.getPrincipal() instanceof JwtPrincipal jwtPrincipal) return String.valueOf(jwtPrincipal.id());
+            if (authentication.getPrincipal() instanceof UserDetail userDetail) return String.valueOf(userDetail.getIdUser());
+        }
+        return principal == null ? "anonymous" : principal.getName();
+    }
+
 }
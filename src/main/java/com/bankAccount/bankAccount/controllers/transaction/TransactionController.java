@@ -1,12 +1,22 @@
 package com.bankAccount.bankAccount.controllers.transaction;
 
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
 import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
 import com.bankAccount.bankAccount.services.transaction.TransactionService;
+import com.bankAccount.bankAccount.utils.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +26,15 @@ public class TransactionController {
     @Autowired
     TransactionService transactionService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${bank.transactions.history.max-page-size:500}")
+    int maxPageSize;
+
+    @Value("${bank.export.flush-size:1000}")
+    int exportFlushSize;
+
     @GetMapping("/get-transactions")
     List<TransactionResponseDTO> getAllTransactions() {
         return transactionService.getAllTransactions();
@@ -25,4 +44,25 @@ public class TransactionController {
     List<String> getTransactionsList() {
         return transactionService.getTransactionsList();
     }
+
+    @GetMapping("/accounts/{accountId}")
+    TransactionPageDTO getAccountTransactions(@PathVariable long accountId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int size,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // El tamaño de página se acota para que ninguna petición recorra todo el historial
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        return transactionService.getAccountTransactions(accountId, cursor, pageSize, from, to);
+    }
+
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportTransactions() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out, exportFlushSize)) {
+                transactionService.forEachTransaction(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
 }
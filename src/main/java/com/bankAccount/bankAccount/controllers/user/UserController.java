@@ -1,13 +1,21 @@
 package com.bankAccount.bankAccount.controllers.user;
 
+import com.bankAccount.bankAccount.dto.user.UserDTO;
+import com.bankAccount.bankAccount.dto.user.UserImportResultDTO;
 import com.bankAccount.bankAccount.dto.user.UserResponseDTO;
 import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.services.user.UserImportService;
 import com.bankAccount.bankAccount.services.user.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,9 +24,18 @@ public class UserController {
     @Autowired
     UserService userService;
 
+    @Autowired
+    UserImportService userImportService;
+
+    @Value("${bank.users.max-page-size:200}")
+    int maxPageSize;
+
+    // La siguiente página se pide con afterId igual al último idUser recibido
     @GetMapping("")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<UserDTO> getAllUsers(@RequestParam(defaultValue = "0") long afterId,
+                                     @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        return userService.getAllUsers(afterId, pageSize);
     }
 
     @GetMapping("/{id}")
@@ -33,14 +50,23 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<UserResponseDTO> registerUser(@RequestBody User user) {
-        UserResponseDTO response =  userService.registerUser(user);
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> registerUser(@RequestBody User user) {
+        // El hash de la contraseña se hace fuera del hilo de Tomcat
+        return userService.registerUserAsync(user).thenApply(response -> {
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response); // 200 OK con el DTO
+            } else if (response.getHttpStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+            } else {
+                return ResponseEntity.badRequest().body(response); // 400 Bad Request con el DTO
+            }
+        });
+    }
 
-        if (response.isSuccess()) {
-            return ResponseEntity.ok(response); // 200 OK con el DTO
-        } else {
-            return ResponseEntity.badRequest().body(response); // 400 Bad Request con el DTO
-        }
+    // El cuerpo se lee como stream para no cargar el archivo completo en memoria
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public UserImportResultDTO importUsers(InputStream csv) {
+        return userImportService.importUsers(csv);
     }
 
     @PutMapping("/update/{id}")
@@ -1,5 +1,7 @@
 package com.bankAccount.bankAccount.dto.bankAccount;
 
+import com.bankAccount.bankAccount.utils.money.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +12,7 @@ import lombok.Data;
 public class BankAccountDTO {
     private long idAccount;
     private String numberAccount;
-    private double balance;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long balance;
     private String type;
 }
@@ -3,9 +3,11 @@ package com.bankAccount.bankAccount.dto.bankAccount;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.http.HttpStatus;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BankAccountResponseDTO {
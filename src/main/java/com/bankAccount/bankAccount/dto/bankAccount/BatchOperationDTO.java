@@ -0,0 +1,26 @@
+package com.bankAccount.bankAccount.dto.bankAccount;
+
+import com.bankAccount.bankAccount.utils.money.MoneyDeserializer;
+import com.bankAccount.bankAccount.utils.money.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOperationDTO {
+
+    public enum Operation { DEPOSIT, WITHDRAW }
+
+    private long accountId;
+    private Operation op;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
+}
@@ -0,0 +1,18 @@
+package com.bankAccount.bankAccount.dto.bankAccount;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResultDTO {
+    private long accountId;
+    private String message;
+    private boolean success;
+    private HttpStatus httpStatus;
+}
@@ -0,0 +1,14 @@
+package com.bankAccount.bankAccount.dto.bankAccount;
+
+import com.bankAccount.bankAccount.utils.money.MoneyDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+
+@Data
+public class TransferRequestDTO {
+    private long fromId;
+    private long toId;
+
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
+}
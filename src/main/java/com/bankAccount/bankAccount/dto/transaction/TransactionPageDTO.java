@@ -0,0 +1,20 @@
+package com.bankAccount.bankAccount.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class TransactionPageDTO {
+    private String message;
+    private boolean success;
+    private List<TransactionRecord> data;
+    private String nextCursor;
+    private boolean hasNext;
+    private HttpStatus httpStatus;
+}
@@ -0,0 +1,58 @@
+package com.bankAccount.bankAccount.dto.transaction;
+
+import com.bankAccount.bankAccount.utils.money.Money;
+import com.bankAccount.bankAccount.utils.money.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A recorded money movement. Only the raw values are kept; the human readable
+ * message is rendered on demand by {@link #message()}.
+ *
+ * @param reference links both legs of a transfer, {@code null} otherwise
+ */
+public record TransactionRecord(long accountId,
+                                String numberAccount,
+                                TransactionType type,
+                                @JsonSerialize(using = MoneySerializer.class) long amount,
+                                @JsonSerialize(using = MoneySerializer.class) long balanceAfter,
+                                long timestamp,
+                                String reference) {
+
+    public static TransactionRecord of(long accountId, String numberAccount, TransactionType type, long amount, long balanceAfter) {
+        return new TransactionRecord(accountId, numberAccount, type, amount, balanceAfter, System.currentTimeMillis(), null);
+    }
+
+    public static TransactionRecord transfer(long accountId, String numberAccount, TransactionType type, long amount, long balanceAfter, String reference) {
+        return new TransactionRecord(accountId, numberAccount, type, amount, balanceAfter, System.currentTimeMillis(), reference);
+    }
+
+    public String message() {
+        String movement = switch (type) {
+            case DEPOSIT -> "deposit to";
+            case WITHDRAWAL -> "withdrawal to";
+            case TRANSFER_OUT -> "transfer " + reference + " from";
+            case TRANSFER_IN -> "transfer " + reference + " to";
+        };
+
+        return "Successful " + movement + " account No. " + numberAccount + " for an amount of: " + Money.format(amount) + " . Current balance: " + Money.format(balanceAfter);
+    }
+
+    public LocalDateTime date() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
+    public TransactionResponseDTO toResponse() {
+        return TransactionResponseDTO.builder()
+                .message(message())
+                .success(true)
+                .amount(amount)
+                .date(date())
+                .httpStatus(HttpStatus.OK)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.bankAccount.bankAccount.dto.transaction;
 
+import com.bankAccount.bankAccount.utils.money.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +15,8 @@ import java.time.LocalDateTime;
 public class TransactionResponseDTO {
     private String message;
     private boolean success;
-    private Double amount;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long amount;
     private LocalDateTime date;
     private HttpStatus httpStatus;
 }
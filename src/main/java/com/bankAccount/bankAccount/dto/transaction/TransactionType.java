@@ -0,0 +1,8 @@
+package com.bankAccount.bankAccount.dto.transaction;
+
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER_OUT,
+    TRANSFER_IN
+}
@@ -0,0 +1,14 @@
+package com.bankAccount.bankAccount.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class UserImportErrorDTO {
+    private long row;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.bankAccount.bankAccount.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class UserImportResultDTO {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    // Solo se devuelven los primeros errores; failed cuenta todos
+    private List<UserImportErrorDTO> errors;
+}
@@ -1,34 +1,59 @@
 package com.bankAccount.bankAccount.entities;
 
+import com.bankAccount.bankAccount.utils.money.MoneyDeserializer;
+import com.bankAccount.bankAccount.utils.money.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
-@Table(name = "bankAccount")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
+// Solo se escriben las columnas modificadas: editar número o tipo no reescribe un saldo leído antes
+@DynamicUpdate
+@NamedEntityGraph(name = BankAccount.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@Table(name = "bankAccount", indexes = @Index(name = "idx_bank_account_id_user", columnList = "idUser"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BankAccount {
 
+    public static final String WITH_USER = "BankAccount.withUser";
+
+    // Secuencia con optimizador pooled: cada viaje a la base reserva 50 IDs y permite lotes de INSERT.
+    // allocationSize debe coincidir con el INCREMENT BY de la secuencia
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_account_seq")
+    @SequenceGenerator(name = "bank_account_seq", sequenceName = "bank_account_seq", allocationSize = 50)
     private long idAccount;
 
     @Column(nullable = false, unique = true)
     private String numberAccount;
 
+    // Saldo en unidades menores de la moneda (centavos)
     @Column(nullable = false)
-    private double balance;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long balance;
 
     @Column
     private String type;
 
-    @ManyToOne
+    // Ninguna operación de saldo usa el usuario; quien lo necesite debe pedir el grafo WITH_USER
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idUser")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
 }
@@ -0,0 +1,32 @@
+package com.bankAccount.bankAccount.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_records")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    private String idempotencyKey;
+
+    // SHA-256 del método, la ruta y el cuerpo de la petición original
+    @Column(length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(nullable = false)
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
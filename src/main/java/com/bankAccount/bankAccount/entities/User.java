@@ -2,12 +2,17 @@ package com.bankAccount.bankAccount.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -16,7 +21,8 @@ import lombok.NoArgsConstructor;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private long idUser;
 
     @Column(nullable = false)
@@ -30,4 +36,10 @@ public class User {
 
     @Column(nullable = false)
     private String password;
+
+    // Versión de los tokens emitidos; se incrementa para revocarlos
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
 }
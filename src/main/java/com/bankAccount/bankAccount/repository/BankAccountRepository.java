@@ -1,10 +1,67 @@
 package com.bankAccount.bankAccount.repository;
 
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.entities.BankAccount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
 
+    // Los UPDATE de saldo son SQL nativo con un espacio de consulta propio: así Hibernate no vacía la región
+    // "accounts" completa en cada movimiento. Quien los llama bloquea en la cache solo la cuenta modificada (AccountCacheLocks)
+    String BALANCE_QUERY_SPACE = "bank_account_balance";
+
+    @Modifying(clearAutomatically = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BALANCE_QUERY_SPACE))
+    @Query(value = "UPDATE bank_account SET balance = balance + :amount WHERE id_account = :idAccount", nativeQuery = true)
+    int depositBalance(@Param("idAccount") long idAccount, @Param("amount") long amount);
+
+    // Solo descuenta si hay fondos suficientes; 0 filas afectadas indica fondos insuficientes o cuenta inexistente
+    @Modifying(clearAutomatically = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BALANCE_QUERY_SPACE))
+    @Query(value = "UPDATE bank_account SET balance = balance - :amount WHERE id_account = :idAccount AND balance >= :amount", nativeQuery = true)
+    int withdrawBalance(@Param("idAccount") long idAccount, @Param("amount") long amount);
+
+    // Movimiento con signo que nunca deja el saldo negativo; 0 filas indica cuenta inexistente o saldo insuficiente
+    @Modifying(clearAutomatically = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BALANCE_QUERY_SPACE))
+    @Query(value = "UPDATE bank_account SET balance = balance + :delta WHERE id_account = :idAccount AND balance + :delta >= 0", nativeQuery = true)
+    int applyDelta(@Param("idAccount") long idAccount, @Param("delta") long delta);
+
+    // Carga la cuenta y su usuario en una sola consulta
+    @EntityGraph(BankAccount.WITH_USER)
+    Optional<BankAccount> findWithUserByIdAccount(long idAccount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BankAccount b WHERE b.idAccount = :idAccount")
+    Optional<BankAccount> findByIdForUpdate(@Param("idAccount") long idAccount);
+
+    @Query("SELECT b.idAccount FROM BankAccount b WHERE b.idAccount IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Proyección a DTO para que el contexto de persistencia no crezca durante la exportación
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO(b.idAccount, b.numberAccount, b.balance, b.type) FROM BankAccount b ORDER BY b.idAccount")
+    Stream<BankAccountDTO> streamAllAccounts();
+
+    // Usa el índice sobre idUser y no carga la entidad User; Slice evita la consulta de conteo
+    @Query("SELECT new com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO(b.idAccount, b.numberAccount, b.balance, b.type) FROM BankAccount b WHERE b.user.idUser = :idUser ORDER BY b.idAccount")
+    Slice<BankAccountDTO> findAccountsByUser(@Param("idUser") long idUser, Pageable pageable);
 }
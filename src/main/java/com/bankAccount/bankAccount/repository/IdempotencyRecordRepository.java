@@ -0,0 +1,18 @@
+package com.bankAccount.bankAccount.repository;
+
+import com.bankAccount.bankAccount.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") LocalDateTime expiredBefore);
+}
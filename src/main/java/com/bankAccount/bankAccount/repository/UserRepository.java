@@ -1,13 +1,41 @@
 package com.bankAccount.bankAccount.repository;
 
+import com.bankAccount.bankAccount.dto.user.UserDTO;
 import com.bankAccount.bankAccount.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Se consulta en cada petición autenticada; la cache se invalida con cualquier escritura en users
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-by-email")
+    })
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    // El email se guarda tal como llega; la unicidad se comprueba sin distinguir mayúsculas
+    boolean existsByEmailIgnoreCase(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    // Paginación por clave: recorre la clave primaria desde afterId y nunca lee la contraseña
+    @Query("SELECT new com.bankAccount.bankAccount.dto.user.UserDTO(u.idUser, u.identificationNumber, u.name, u.email) FROM User u WHERE u.idUser > :afterId ORDER BY u.idUser")
+    List<UserDTO> findUsersAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Solo la versión de los tokens, para validarlos sin cargar al usuario completo
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.idUser = :idUser")
+    Optional<Integer> findTokenVersion(@Param("idUser") long idUser);
 }
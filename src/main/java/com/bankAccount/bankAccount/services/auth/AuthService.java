@@ -1,10 +1,9 @@
 package com.bankAccount.bankAccount.services.auth;
 
 import com.bankAccount.bankAccount.config.JwtUtil;
+import com.bankAccount.bankAccount.config.UserDetail;
 import com.bankAccount.bankAccount.dto.auth.AuthRequestDTO;
 import com.bankAccount.bankAccount.dto.auth.AuthResponseDTO;
-import com.bankAccount.bankAccount.entities.User;
-import com.bankAccount.bankAccount.repository.UserRepository;
 import com.bankAccount.bankAccount.utils.ResponseHandler;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +13,11 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @AllArgsConstructor
@@ -25,10 +26,18 @@ public class AuthService {
     private final JwtUtil jwtUtil;
 
     @Autowired
-    UserRepository userRepository;
+    ResponseHandler responseHandler;
 
     @Autowired
-    ResponseHandler responseHandler;
+    PasswordHashingExecutor passwordHashingExecutor;
+
+    // La verificación BCrypt corre en el pool de hashing; si está lleno se responde 503 de inmediato
+    public CompletableFuture<AuthResponseDTO> authenticateAsync(AuthRequestDTO request) {
+        return passwordHashingExecutor.submit(
+                () -> authenticate(request),
+                () -> responseHandler.buildErrorAuth("Too many login attempts in progress, try again later.", HttpStatus.SERVICE_UNAVAILABLE)
+        );
+    }
 
     public AuthResponseDTO authenticate(AuthRequestDTO request) {
         return responseHandler.executeSafelyAuth(() -> {
@@ -43,16 +52,12 @@ public class AuthService {
                 return responseHandler.buildErrorAuth("Incorrect credentials", HttpStatus.UNAUTHORIZED);
             }
 
-            Optional<User> userDB = userRepository.findByEmail(request.getEmail());
-
-            if (userDB.isEmpty()) {
-                return responseHandler.buildErrorAuth("User not found with email: " + request.getEmail(), HttpStatus.NOT_FOUND);
-            }
-
-            User user = userDB.get();
+            // El principal ya trae el id y la versión de los tokens, así que no se vuelve a consultar users
+            UserDetail user = (UserDetail) authentication.getPrincipal();
 
             // Generar el token JWT
-            String jwt = jwtUtil.generateToken(user.getEmail(), user.getIdUser());
+            List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+            String jwt = jwtUtil.generateToken(user.getUsername(), user.getIdUser(), authorities, user.getTokenVersion());
 
             // Construir la respuesta exitosa
             return responseHandler.buildSuccessAuth("Authentication successful", jwt);
@@ -9,6 +9,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -16,17 +18,19 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private final UserRepository userRepository;
 
+    @Autowired
+    private final UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userDetailsCache.get(email, this::loadFromDatabase);
+    }
+
+    private UserDetails loadFromDatabase(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
 
-        return UserDetail.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .accountLocked(false)
-                .disabled(false)
-                .build();
+        return new UserDetail(user.getIdUser(), user.getTokenVersion(), user.getEmail(), user.getPassword(), List.of());
     }
 }
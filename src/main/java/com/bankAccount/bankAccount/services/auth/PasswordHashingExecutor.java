@@ -0,0 +1,106 @@
+package com.bankAccount.bankAccount.services.auth;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Login y registro corren fuera de los hilos del servidor para que BCrypt no agote el pool de peticiones.
+// Pool y cola están acotados: si ambos están llenos se responde ocupado de inmediato en lugar de esperar.
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor pool;
+    private final long shutdownTimeoutMillis;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${bank.auth.hashing.threads:0}") int threads,
+                                   @Value("${bank.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${bank.auth.hashing.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task, Supplier<T> whenBusy) {
+        HashingTask<T> hashing = new HashingTask<>(task, whenBusy);
+
+        try {
+            pool.execute(hashing);
+        } catch (RejectedExecutionException e) {
+            if (rejected.incrementAndGet() % 1_000 == 1) {
+                log.warn("Password hashing queue is full, {} requests rejected so far", rejected.get());
+            }
+            hashing.abandon();
+        }
+
+        return hashing.result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.hashing.rejected", rejected, AtomicLong::get)
+                .description("Login and registration requests answered as busy because the hashing pool was full")
+                .register(registry);
+    }
+
+    // Se deja terminar lo encolado; si no alcanza el plazo, lo que queda en cola se responde como ocupado
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        pool.shutdown();
+
+        if (!pool.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            for (Runnable queued : pool.shutdownNow()) {
+                ((HashingTask<?>) queued).abandon();
+            }
+        }
+    }
+
+    private static final class HashingTask<T> implements Runnable {
+        private final Supplier<T> task;
+        private final Supplier<T> whenBusy;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private HashingTask(Supplier<T> task, Supplier<T> whenBusy) {
+            this.task = task;
+            this.whenBusy = whenBusy;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void abandon() {
+            result.complete(whenBusy.get());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bankAccount.bankAccount.services.auth;
+
+import com.bankAccount.bankAccount.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Current token version per user. Tokens carry the version they were issued
+ * with; revoking a user bumps the version stored on the users row so every
+ * older token is rejected. Versions are cached for a short TTL, which bounds
+ * how long another instance keeps accepting a revoked token.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Un usuario borrado no tiene ningún token válido
+    static final int DELETED = Integer.MAX_VALUE;
+
+    private final LoadingCache<Long, Integer> versions;
+
+    @Autowired
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${bank.auth.token-version.max-entries:100000}") long maxEntries,
+                                @Value("${bank.auth.token-version.ttl:30s}") Duration ttl) {
+        this(idUser -> userRepository.findTokenVersion(idUser).orElse(DELETED), maxEntries, ttl);
+    }
+
+    public TokenVersionRegistry(LongToIntFunction loader, long maxEntries, Duration ttl) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build(loader::applyAsInt);
+    }
+
+    public int currentVersion(long idUser) {
+        return versions.get(idUser);
+    }
+
+    public boolean isCurrent(long idUser, int tokenVersion) {
+        return tokenVersion >= currentVersion(idUser);
+    }
+
+    /**
+     * Forgets the cached version once the new one is stored, so the next
+     * request reads it from users. Call it after bumping the user's token
+     * version or deleting the user.
+     */
+    public void revoke(long idUser) {
+        versions.invalidate(idUser);
+
+        // Dentro de una transacción se vuelve a invalidar al terminar, por si se leyó la versión anterior
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versions.invalidate(idUser);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankAccount.bankAccount.services.auth;
+
+import com.bankAccount.bankAccount.config.UserDetail;
+import com.bankAccount.bankAccount.services.user.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of the principals loaded by
+ * CustomUserDetailsService, keyed by email. Concurrent misses for the same
+ * email wait for a single load. Entries are dropped when a UserChangedEvent
+ * is published.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> users;
+
+    public UserDetailsCache(@Value("${bank.auth.user-cache.enabled:false}") boolean enabled,
+                            @Value("${bank.auth.user-cache.max-entries:10000}") long maxEntries,
+                            @Value("${bank.auth.user-cache.ttl:5m}") Duration ttl) {
+        this.users = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        if (users == null) return loader.apply(email);
+
+        // Los usuarios inexistentes lanzan excepción y no quedan en la cache
+        UserDetails cached = users.get(email, loader);
+
+        // Se entrega una copia: Spring borra la contraseña del principal tras autenticar
+        return cached instanceof UserDetail detail ? detail.copy() : User.withUserDetails(cached).build();
+    }
+
+    // Tras el commit, para que una carga concurrente no deje en cache el estado anterior
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.email());
+    }
+
+    public void invalidate(String email) {
+        if (users != null && email != null) {
+            users.invalidate(email);
+        }
+    }
+
+    public Optional<CacheStats> stats() {
+        return Optional.ofNullable(users).map(Cache::stats);
+    }
+}
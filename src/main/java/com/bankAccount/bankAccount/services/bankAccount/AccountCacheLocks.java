@@ -0,0 +1,50 @@
+package com.bankAccount.bankAccount.services.bankAccount;
+
+import com.bankAccount.bankAccount.entities.BankAccount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Los UPDATE nativos de saldo no pasan por Hibernate, así que se toma a mano el mismo bloqueo suave que READ_WRITE
+// usa al actualizar una entidad: mientras dure la transacción nadie cachea la cuenta y, al liberarlo, se rechaza
+// cualquier carga que haya empezado antes, con lo que un saldo anterior al commit no puede volver a la cache
+@Component
+public class AccountCacheLocks {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    // Debe llamarse dentro de la transacción que modifica los saldos; el bloqueo se libera al terminar, confirme o no
+    public void lock(Collection<Long> ids) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(BankAccount.class);
+
+        // El contexto de persistencia tampoco conoce el nuevo saldo
+        ids.forEach(id -> entityManager.detach(entityManager.getReference(BankAccount.class, id)));
+        if (!persister.canWriteToCache()) return;
+
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+            locks.put(key, cacheAccess.lockItem(session, key, null));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach((key, lock) -> cacheAccess.unlockItem(session, key, lock));
+            }
+        });
+    }
+}
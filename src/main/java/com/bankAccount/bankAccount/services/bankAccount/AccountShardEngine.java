@@ -0,0 +1,335 @@
+package com.bankAccount.bankAccount.services.bankAccount;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
+import com.bankAccount.bankAccount.utils.ResponseHandler;
+import com.bankAccount.bankAccount.utils.money.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Motor opcional de un solo escritor: cada cuenta pertenece a un shard cuyo hilo guarda su saldo y
+// persiste los deltas por lote. Con bank.engine.enabled=true debe ser el único escritor de saldos y
+// correr en una sola instancia; un delta rechazado descarta la cuenta en memoria y responde 409.
+@Service
+@ConditionalOnProperty(name = "bank.engine.enabled", havingValue = "true")
+public class AccountShardEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountShardEngine.class);
+
+    private final BankAccountRepository bankAccountRepository;
+    private final BankAccountService bankAccountService;
+    private final TransactionRecorder transactionRecorder;
+    private final ResponseHandler responseHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCacheLocks accountCacheLocks;
+    private final Shard[] shards;
+    private final int batchSize;
+    private final long timeoutMillis;
+
+    private volatile boolean running = true;
+
+    public AccountShardEngine(BankAccountRepository bankAccountRepository,
+                              BankAccountService bankAccountService,
+                              TransactionRecorder transactionRecorder,
+                              ResponseHandler responseHandler,
+                              PlatformTransactionManager transactionManager,
+                              AccountCacheLocks accountCacheLocks,
+                              @Value("${bank.engine.shards:0}") int shardCount,
+                              @Value("${bank.engine.queue-capacity:10000}") int queueCapacity,
+                              @Value("${bank.engine.batch-size:500}") int batchSize,
+                              @Value("${bank.engine.timeout-ms:5000}") long timeoutMillis) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankAccountService = bankAccountService;
+        this.transactionRecorder = transactionRecorder;
+        this.responseHandler = responseHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountCacheLocks = accountCacheLocks;
+        this.batchSize = batchSize;
+        this.timeoutMillis = timeoutMillis;
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(queueCapacity);
+            Thread thread = new Thread(shards[i]::run, "account-shard-" + i);
+            thread.setDaemon(true);
+            shards[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    // Si el llamador ya tiene una transacción (petición idempotente) el depósito se aplica en ella, en su hilo
+    public CompletableFuture<BankAccountResponseDTO> deposit(long idAccount, long amount) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return CompletableFuture.completedFuture(outsideShards(List.of(idAccount), () -> bankAccountService.depositMoney(idAccount, amount)));
+        }
+        return submit(new Command(Operation.DEPOSIT, idAccount, amount));
+    }
+
+    public CompletableFuture<BankAccountResponseDTO> withdraw(long idAccount, long amount) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return CompletableFuture.completedFuture(outsideShards(List.of(idAccount), () -> bankAccountService.withdrawMoney(idAccount, amount)));
+        }
+        return submit(new Command(Operation.WITHDRAW, idAccount, amount));
+    }
+
+    // Las dos cuentas pueden estar en shards distintos: ambas patas van en una sola transacción del servicio
+    public BankAccountResponseDTO transfer(long fromId, long toId, long amount) {
+        return outsideShards(List.of(fromId, toId), () -> bankAccountService.transferMoney(fromId, toId, amount));
+    }
+
+    // El lote usa el batch JDBC del servicio para que una cola llena no lo corte a medias
+    public List<BatchResultDTO> applyBatch(List<BatchOperationDTO> operations) {
+        return outsideShards(operations.stream().map(BatchOperationDTO::getAccountId).toList(), () -> bankAccountService.applyBatch(operations));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // Lo que quedó en cola (o entró tras el último sondeo) no se aplicará; se responde en lugar de dejarlo colgado
+        for (Shard shard : shards) {
+            for (Command command; (command = shard.queue.poll()) != null; ) {
+                expire(command);
+            }
+        }
+    }
+
+    private CompletableFuture<BankAccountResponseDTO> submit(Command command) {
+        if (command.amount <= 0) {
+            command.result.complete(responseHandler.buildErrorAccount("Invalid amount.", HttpStatus.BAD_REQUEST));
+            return command.result;
+        }
+
+        if (!running || !shardFor(command.idAccount).queue.offer(command)) {
+            expire(command);
+            return command.result;
+        }
+
+        // Solo vence si ningún shard la tomó todavía; una vez tomada se responde al confirmar el lote
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> expire(command));
+        return command.result;
+    }
+
+    private void expire(Command command) {
+        if (command.claimed.compareAndSet(false, true)) {
+            command.result.complete(responseHandler.buildErrorAccount("The account engine is busy, try again later.", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    // Escrituras fuera de los shards: las cuentas se marcan antes, para que ningún lote posterior use el saldo
+    // anterior, y otra vez al terminar, por si un lote en curso ya las había leído
+    private <T> T outsideShards(List<Long> ids, Supplier<T> write) {
+        markStale(ids);
+        try {
+            return write.get();
+        } finally {
+            // También tras un error: la transacción pudo confirmarse antes de que fallara la respuesta
+            markStale(ids);
+            markStaleAfterCompletion(ids);
+        }
+    }
+
+    private void markStale(List<Long> ids) {
+        for (long idAccount : ids) {
+            shardFor(idAccount).stale.add(idAccount);
+        }
+    }
+
+    // Dentro de una transacción del llamador se repite al terminar, por si el shard recargó la cuenta antes de confirmarse
+    private void markStaleAfterCompletion(List<Long> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    markStale(ids);
+                }
+            });
+        }
+    }
+
+    private Shard shardFor(long idAccount) {
+        int hash = Long.hashCode(idAccount) * 0x9E3779B9;
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private enum Operation { DEPOSIT, WITHDRAW }
+
+    private static final class Command {
+        private final Operation operation;
+        private final long idAccount;
+        private final long amount;
+        private final CompletableFuture<BankAccountResponseDTO> result = new CompletableFuture<>();
+        // La toma el shard que la aplica o el vencimiento, lo que ocurra primero
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private BankAccountResponseDTO response;
+        private String numberAccount;
+        private long balanceAfter;
+
+        private Command(Operation operation, long idAccount, long amount) {
+            this.operation = operation;
+            this.idAccount = idAccount;
+            this.amount = amount;
+        }
+    }
+
+    private final class Shard {
+        private final BlockingQueue<Command> queue;
+        // Solo el hilo del shard accede a estos mapas
+        private final Map<Long, BankAccount> accounts = new HashMap<>();
+        private final Map<Long, Long> pendingDeltas = new HashMap<>();
+        // Cuentas modificadas fuera del shard (transferencias); se recargan antes del siguiente lote
+        private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+        private final List<Command> batch = new ArrayList<>();
+        private Thread thread;
+
+        private Shard(int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Command first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    batch.removeIf(command -> !command.claimed.compareAndSet(false, true));
+                    if (batch.isEmpty()) continue;
+
+                    dropStale();
+                    batch.forEach(this::apply);
+                    commit();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Account shard failed to process a batch", e);
+                    fail(e);
+                } finally {
+                    batch.clear();
+                    pendingDeltas.clear();
+                }
+            }
+        }
+
+        private void dropStale() {
+            for (Iterator<Long> ids = stale.iterator(); ids.hasNext(); ) {
+                accounts.remove(ids.next());
+                ids.remove();
+            }
+        }
+
+        private void apply(Command command) {
+            BankAccount account = accounts.get(command.idAccount);
+
+            if (account == null) {
+                account = bankAccountRepository.findById(command.idAccount).orElse(null);
+
+                if (account == null) {
+                    command.response = responseHandler.buildErrorAccount("The account with ID: " + command.idAccount + " does not exist.", HttpStatus.NOT_FOUND);
+                    return;
+                }
+
+                accounts.put(command.idAccount, account);
+            }
+
+            long delta = command.operation == Operation.DEPOSIT ? command.amount : -command.amount;
+
+            if (delta < 0 && account.getBalance() < command.amount) {
+                command.response = responseHandler.buildErrorAccount("Insufficient funds.", HttpStatus.BAD_REQUEST);
+                return;
+            }
+
+            account.setBalance(Money.add(account.getBalance(), delta));
+            pendingDeltas.merge(command.idAccount, delta, Long::sum);
+
+            command.numberAccount = account.getNumberAccount();
+            command.balanceAfter = account.getBalance();
+            command.response = responseHandler.buildSuccessAccount(
+                    "Transaction type: " + account.getType() + ". Amount: " + Money.format(command.amount) + " . Current Balance: " + Money.format(account.getBalance()),
+                    command.operation == Operation.DEPOSIT ? account : null
+            );
+        }
+
+        private void commit() {
+            Set<Long> rejected = new HashSet<>();
+
+            if (!pendingDeltas.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Los UPDATE nativos no tocan la región "accounts"; se bloquean solo las cuentas del lote
+                    accountCacheLocks.lock(Set.copyOf(pendingDeltas.keySet()));
+                    pendingDeltas.forEach((idAccount, delta) -> {
+                        if (delta != 0 && bankAccountRepository.applyDelta(idAccount, delta) == 0) {
+                            rejected.add(idAccount);
+                        }
+                    });
+                });
+            }
+
+            // 0 filas: la cuenta se borró o su saldo cambió fuera del motor; la copia en memoria ya no sirve
+            Set<Long> existing = rejected.isEmpty() ? Set.of() : new HashSet<>(bankAccountRepository.findExistingIds(rejected));
+            rejected.forEach(accounts::remove);
+
+            for (Command command : batch) {
+                if (rejected.contains(command.idAccount) && command.numberAccount != null) {
+                    command.result.complete(existing.contains(command.idAccount)
+                            ? responseHandler.buildErrorAccount("The balance of account with ID: " + command.idAccount + " changed outside the account engine, try again.", HttpStatus.CONFLICT)
+                            : responseHandler.buildErrorAccount("The account with ID: " + command.idAccount + " does not exist.", HttpStatus.NOT_FOUND));
+                    continue;
+                }
+
+                if (command.numberAccount != null) {
+                    TransactionType type = command.operation == Operation.DEPOSIT ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+                    transactionRecorder.record(TransactionRecord.of(command.idAccount, command.numberAccount, type, command.amount, command.balanceAfter));
+                }
+                command.result.complete(command.response);
+            }
+        }
+
+        // Si la persistencia falla, el estado en memoria de las cuentas del lote deja de ser confiable
+        private void fail(RuntimeException e) {
+            for (Command command : batch) {
+                accounts.remove(command.idAccount);
+                command.result.complete(responseHandler.buildErrorAccount("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR));
+            }
+        }
+    }
+}
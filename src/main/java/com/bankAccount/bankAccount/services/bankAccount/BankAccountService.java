@@ -1,24 +1,36 @@
 package com.bankAccount.bankAccount.services.bankAccount;
 
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
 import com.bankAccount.bankAccount.entities.BankAccount;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BankAccountService {
 
-    List<BankAccount> getAllAccountsByUser(long idUser);
+    List<BankAccountDTO> getAllAccountsByUser(long idUser, int page, int size);
 
     BankAccountResponseDTO getBalanceByAccount(long idAccount);
 
     BankAccountResponseDTO createAccount(long idUser, BankAccount account);
 
+    BankAccountResponseDTO createAccounts(long idUser, List<BankAccount> accounts);
+
     BankAccountResponseDTO updateAccount(long idAccount, BankAccount account);
 
     BankAccountResponseDTO deleteAccount(long idAccount);
 
-    BankAccountResponseDTO depositMoney(long idAccount, double amount);
+    BankAccountResponseDTO depositMoney(long idAccount, long amount);
+
+    BankAccountResponseDTO withdrawMoney(long idAccount, long amount);
+
+    BankAccountResponseDTO transferMoney(long fromId, long toId, long amount);
+
+    void exportAccounts(Consumer<BankAccountDTO> consumer);
 
-    BankAccountResponseDTO withdrawMoney(long idAccount, double amount);
+    List<BatchResultDTO> applyBatch(List<BatchOperationDTO> operations);
 
 }
\ No newline at end of file
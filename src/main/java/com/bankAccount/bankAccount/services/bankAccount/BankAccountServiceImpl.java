@@ -1,20 +1,50 @@
 package com.bankAccount.bankAccount.services.bankAccount;
 
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
 import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.entities.User;
 import com.bankAccount.bankAccount.repository.BankAccountRepository;
 import com.bankAccount.bankAccount.repository.UserRepository;
-import com.bankAccount.bankAccount.services.transaction.TransactionService;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
 import com.bankAccount.bankAccount.utils.ResponseHandler;
+import com.bankAccount.bankAccount.utils.money.Money;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BankAccountServiceImpl implements BankAccountService {
 
+    // Depósitos y retiros comparten la sentencia para que el lote JDBC conserve el orden de los movimientos
+    private static final String BATCH_MOVEMENT_SQL =
+            "UPDATE bank_account SET balance = balance + ? WHERE id_account = ? AND balance + ? >= 0";
+    private static final int JDBC_BATCH_SIZE = 1000;
+
     @Autowired
     BankAccountRepository bankAccountRepository;
 
@@ -22,14 +52,26 @@ public class BankAccountServiceImpl implements BankAccountService {
     UserRepository userRepository;
 
     @Autowired
-    TransactionService transactionService;
+    TransactionRecorder transactionRecorder;
 
     @Autowired
     ResponseHandler responseHandler;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    AccountCacheLocks accountCacheLocks;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int entityBatchSize;
+
     @Override
-    public List<BankAccount> getAllAccountsByUser(long idUser) {
-        return bankAccountRepository.findAll();
+    public List<BankAccountDTO> getAllAccountsByUser(long idUser, int page, int size) {
+        return bankAccountRepository.findAccountsByUser(idUser, PageRequest.of(page, size)).getContent();
     }
 
     @Override
@@ -37,7 +79,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         return responseHandler.executeSafelyAccount(() ->
             bankAccountRepository.findById(idAccount)
                 .map(account ->
-                    responseHandler.buildSuccessAccount("The balance for account : " + account.getNumberAccount() + " is: " + account.getBalance(), account.getBalance())
+                    responseHandler.buildSuccessAccount("The balance for account : " + account.getNumberAccount() + " is: " + Money.format(account.getBalance()), Money.toDecimal(account.getBalance()))
                 )
                 .orElseGet(() ->
                     responseHandler.buildErrorAccount("The account with ID: " + idAccount + " does not exist.", HttpStatus.NOT_FOUND)
@@ -58,6 +100,36 @@ public class BankAccountServiceImpl implements BankAccountService {
         );
     }
 
+    @Override
+    @Transactional
+    public BankAccountResponseDTO createAccounts(long idUser, List<BankAccount> accounts) {
+        return responseHandler.executeSafelyAccount(() -> {
+            if (!userRepository.existsById(idUser)) {
+                return responseHandler.buildErrorAccount("User with ID: " + idUser + " not found.", HttpStatus.NOT_FOUND);
+            }
+
+            // Basta la referencia al usuario para la llave foránea; las cuentas nuevas no se cachean
+            User user = userRepository.getReferenceById(idUser);
+            entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+
+            // Cada bloque se envía como un lote JDBC y se libera del contexto para que el flush no crezca con el total
+            int chunkSize = Math.max(entityBatchSize, 1);
+            List<Long> ids = new ArrayList<>(accounts.size());
+
+            for (int from = 0; from < accounts.size(); from += chunkSize) {
+                List<BankAccount> chunk = accounts.subList(from, Math.min(from + chunkSize, accounts.size()));
+                chunk.forEach(account -> account.setUser(user));
+
+                bankAccountRepository.saveAll(chunk);
+                bankAccountRepository.flush();
+                chunk.forEach(account -> ids.add(account.getIdAccount()));
+                entityManager.clear();
+            }
+
+            return responseHandler.buildSuccessAccount(ids.size() + " accounts created successfully", ids);
+        });
+    }
+
     @Override
     public BankAccountResponseDTO updateAccount(long idAccount, BankAccount account) {
         return responseHandler.executeSafelyAccount(() ->
@@ -85,46 +157,189 @@ public class BankAccountServiceImpl implements BankAccountService {
     }
 
     @Override
-    public BankAccountResponseDTO depositMoney(long idAccount, double amount) {
+    @Transactional
+    public BankAccountResponseDTO depositMoney(long idAccount, long amount) {
         return responseHandler.executeSafelyAccount(() -> {
             if(amount <= 0) return responseHandler.buildErrorAccount("Invalid amount.", HttpStatus.BAD_REQUEST);
 
-            return bankAccountRepository.findById(idAccount)
-                    .map(accountDB -> {
-                        double newBalance = accountDB.getBalance() + amount;
-                        accountDB.setBalance(newBalance);
-                        bankAccountRepository.save(accountDB);
+            if (bankAccountRepository.depositBalance(idAccount, amount) == 0) {
+                return responseHandler.buildErrorAccount("The account with ID: " + idAccount + " does not exist.", HttpStatus.NOT_FOUND);
+            }
+            accountCacheLocks.lock(Set.of(idAccount));
 
-                        transactionService.addTransaction(
-                                "Successful deposit to account No. " + accountDB.getNumberAccount() + " for an amount of: " + amount + " . Current balance: " + accountDB.getBalance(), amount
-                        );
+            BankAccount accountDB = bankAccountRepository.findById(idAccount).orElseThrow();
 
-                        return responseHandler.buildSuccessAccount("Transaction type: " + accountDB.getType() + ". Amount: " + amount + " . Current Balance: " + accountDB.getBalance(), accountDB);
-                    })
-                    .orElseGet(() -> responseHandler.buildErrorAccount("The account with ID: " + idAccount + " does not exist.", HttpStatus.NOT_FOUND));
+            transactionRecorder.record(TransactionRecord.of(idAccount, accountDB.getNumberAccount(), TransactionType.DEPOSIT, amount, accountDB.getBalance()));
+
+            return responseHandler.buildSuccessAccount("Transaction type: " + accountDB.getType() + ". Amount: " + Money.format(amount) + " . Current Balance: " + Money.format(accountDB.getBalance()), accountDB);
         });
     }
 
     @Override
-    public BankAccountResponseDTO withdrawMoney(long idAccount, double amount) {
+    @Transactional
+    public BankAccountResponseDTO withdrawMoney(long idAccount, long amount) {
         return responseHandler.executeSafelyAccount(() -> {
             if(amount <= 0) return responseHandler.buildErrorAccount("Invalid amount.", HttpStatus.BAD_REQUEST);
 
-            return bankAccountRepository.findById(idAccount)
-                .map(accountDB -> {
-                    if(amount > accountDB.getBalance()) return responseHandler.buildErrorAccount("Insufficient funds.", HttpStatus.BAD_REQUEST);
+            if (bankAccountRepository.withdrawBalance(idAccount, amount) == 0) {
+                return bankAccountRepository.existsById(idAccount)
+                        ? responseHandler.buildErrorAccount("Insufficient funds.", HttpStatus.BAD_REQUEST)
+                        : responseHandler.buildErrorAccount("The account with ID: " + idAccount + " does not exist.", HttpStatus.NOT_FOUND);
+            }
+            accountCacheLocks.lock(Set.of(idAccount));
 
-                    double newBalance = accountDB.getBalance() - amount;
-                    accountDB.setBalance(newBalance);
-                    bankAccountRepository.save(accountDB);
+            BankAccount accountDB = bankAccountRepository.findById(idAccount).orElseThrow();
 
-                    transactionService.addTransaction(
-                            "Successful withdrawal to account No. " + accountDB.getNumberAccount() + " for an amount of: " + amount + " . Current balance: " + accountDB.getBalance(), amount
-                    );
+            transactionRecorder.record(TransactionRecord.of(idAccount, accountDB.getNumberAccount(), TransactionType.WITHDRAWAL, amount, accountDB.getBalance()));
 
-                    return responseHandler.buildSuccessAccount("Transaction type: " + accountDB.getType() + ". Amount: " + amount + " . Current Balance: " + accountDB.getBalance(), null);
-                })
-                .orElseGet(() -> responseHandler.buildErrorAccount("The account with ID: " + idAccount + " does not exist.", HttpStatus.NOT_FOUND));
+            return responseHandler.buildSuccessAccount("Transaction type: " + accountDB.getType() + ". Amount: " + Money.format(amount) + " . Current Balance: " + Money.format(accountDB.getBalance()), null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public BankAccountResponseDTO transferMoney(long fromId, long toId, long amount) {
+        return responseHandler.executeSafelyAccount(() -> {
+            if(amount <= 0) return responseHandler.buildErrorAccount("Invalid amount.", HttpStatus.BAD_REQUEST);
+            if(fromId == toId) return responseHandler.buildErrorAccount("Source and destination accounts must be different.", HttpStatus.BAD_REQUEST);
+
+            // Las cuentas se bloquean siempre en orden de idAccount para que transferencias opuestas no se interbloqueen
+            Optional<BankAccount> first = bankAccountRepository.findByIdForUpdate(Math.min(fromId, toId));
+            Optional<BankAccount> second = bankAccountRepository.findByIdForUpdate(Math.max(fromId, toId));
+
+            Optional<BankAccount> source = fromId < toId ? first : second;
+            Optional<BankAccount> destination = fromId < toId ? second : first;
+
+            if (source.isEmpty()) {
+                return responseHandler.buildErrorAccount("The account with ID: " + fromId + " does not exist.", HttpStatus.NOT_FOUND);
+            }
+            if (destination.isEmpty()) {
+                return responseHandler.buildErrorAccount("The account with ID: " + toId + " does not exist.", HttpStatus.NOT_FOUND);
+            }
+
+            BankAccount sourceDB = source.get();
+            BankAccount destinationDB = destination.get();
+
+            if(amount > sourceDB.getBalance()) return responseHandler.buildErrorAccount("Insufficient funds.", HttpStatus.BAD_REQUEST);
+
+            sourceDB.setBalance(Money.subtract(sourceDB.getBalance(), amount));
+            destinationDB.setBalance(Money.add(destinationDB.getBalance(), amount));
+
+            String reference = UUID.randomUUID().toString();
+
+            transactionRecorder.record(TransactionRecord.transfer(fromId, sourceDB.getNumberAccount(), TransactionType.TRANSFER_OUT, amount, sourceDB.getBalance(), reference));
+            transactionRecorder.record(TransactionRecord.transfer(toId, destinationDB.getNumberAccount(), TransactionType.TRANSFER_IN, amount, destinationDB.getBalance(), reference));
+
+            return responseHandler.buildSuccessAccount("Transaction type: transfer. Amount: " + Money.format(amount) + " . Current Balance: " + Money.format(sourceDB.getBalance()), sourceDB);
+        });
+    }
+
+    // El Stream de JPA solo es válido dentro de la transacción, por eso se consume aquí
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAccounts(Consumer<BankAccountDTO> consumer) {
+        try (Stream<BankAccountDTO> accounts = bankAccountRepository.streamAllAccounts()) {
+            accounts.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<BatchResultDTO> applyBatch(List<BatchOperationDTO> operations) {
+        BatchResultDTO[] results = new BatchResultDTO[operations.size()];
+        List<Integer> valid = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationDTO operation = operations.get(i);
+
+            if (operation.getOp() == null) {
+                results[i] = buildBatchError(operation, "Invalid operation.", HttpStatus.BAD_REQUEST);
+            } else if (operation.getAmount() <= 0) {
+                results[i] = buildBatchError(operation, "Invalid amount.", HttpStatus.BAD_REQUEST);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(BATCH_MOVEMENT_SQL, valid, JDBC_BATCH_SIZE, (ps, index) -> {
+            BatchOperationDTO operation = operations.get(index);
+            long delta = signedAmount(operation);
+            ps.setLong(1, delta);
+            ps.setLong(2, operation.getAccountId());
+            ps.setLong(3, delta);
         });
+
+        List<Integer> applied = new ArrayList<>();
+        List<Integer> rejected = new ArrayList<>();
+
+        for (int k = 0; k < valid.size(); k++) {
+            if (updateCounts[k / JDBC_BATCH_SIZE][k % JDBC_BATCH_SIZE] == 0) {
+                rejected.add(valid.get(k));
+            } else {
+                applied.add(valid.get(k));
+            }
+        }
+
+        if (!rejected.isEmpty()) {
+            Set<Long> existingIds = new HashSet<>(bankAccountRepository.findExistingIds(
+                    rejected.stream().map(index -> operations.get(index).getAccountId()).collect(Collectors.toSet())
+            ));
+
+            for (int index : rejected) {
+                BatchOperationDTO operation = operations.get(index);
+                results[index] = existingIds.contains(operation.getAccountId())
+                        ? buildBatchError(operation, "Insufficient funds.", HttpStatus.BAD_REQUEST)
+                        : buildBatchError(operation, "The account with ID: " + operation.getAccountId() + " does not exist.", HttpStatus.NOT_FOUND);
+            }
+        }
+
+        // Con el saldo final de cada cuenta, recorrer el lote al revés da el saldo posterior a cada movimiento
+        Set<Long> appliedIds = applied.stream().map(index -> operations.get(index).getAccountId()).collect(Collectors.toSet());
+        accountCacheLocks.lock(appliedIds);
+        Map<Long, BankAccount> accounts = new HashMap<>();
+        for (BankAccount account : bankAccountRepository.findAllById(appliedIds)) {
+            accounts.put(account.getIdAccount(), account);
+        }
+
+        Map<Long, Long> runningBalances = new HashMap<>();
+        accounts.forEach((idAccount, account) -> runningBalances.put(idAccount, account.getBalance()));
+        long[] balancesAfter = new long[operations.size()];
+
+        for (int k = applied.size() - 1; k >= 0; k--) {
+            int index = applied.get(k);
+            BatchOperationDTO operation = operations.get(index);
+            balancesAfter[index] = runningBalances.get(operation.getAccountId());
+            runningBalances.put(operation.getAccountId(), balancesAfter[index] - signedAmount(operation));
+        }
+
+        for (int index : applied) {
+            BatchOperationDTO operation = operations.get(index);
+            BankAccount account = accounts.get(operation.getAccountId());
+            TransactionType type = operation.getOp() == BatchOperationDTO.Operation.DEPOSIT ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+
+            transactionRecorder.record(TransactionRecord.of(operation.getAccountId(), account.getNumberAccount(), type, operation.getAmount(), balancesAfter[index]));
+
+            results[index] = BatchResultDTO.builder()
+                    .accountId(operation.getAccountId())
+                    .message("Transaction type: " + account.getType() + ". Amount: " + Money.format(operation.getAmount()) + " . Current Balance: " + Money.format(balancesAfter[index]))
+                    .success(true)
+                    .httpStatus(HttpStatus.OK)
+                    .build();
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private long signedAmount(BatchOperationDTO operation) {
+        return operation.getOp() == BatchOperationDTO.Operation.DEPOSIT ? operation.getAmount() : -operation.getAmount();
+    }
+
+    private BatchResultDTO buildBatchError(BatchOperationDTO operation, String message, HttpStatus status) {
+        return BatchResultDTO.builder()
+                .accountId(operation.getAccountId())
+                .message(message)
+                .success(false)
+                .httpStatus(status)
+                .build();
     }
 }
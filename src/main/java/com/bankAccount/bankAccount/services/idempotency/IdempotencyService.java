@@ -0,0 +1,11 @@
+package com.bankAccount.bankAccount.services.idempotency;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String requestHash(String method, String path, Object body);
+
+    // Devuelve el cuerpo JSON de la respuesta; un reintento recibe los mismos bytes que la primera ejecución
+    <T> String execute(String key, String requestHash, Supplier<T> operation);
+}
@@ -0,0 +1,162 @@
+package com.bankAccount.bankAccount.services.idempotency;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.IdempotencyRecord;
+import com.bankAccount.bankAccount.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Guarda la respuesta de cada movimiento bajo su Idempotency-Key, en la misma transacción que el movimiento.
+// La tabla solo se lee si falla la cache en memoria; una clave reutilizada con otra petición responde 422.
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, Remembered> responses;
+    // Reintentos concurrentes con la misma clave esperan a la primera ejecución
+    private final ConcurrentMap<String, Remembered> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${bank.idempotency.max-entries:100000}") long maxEntries,
+                                  @Value("${bank.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public String requestHash(String method, String path, Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(body));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash the request for its idempotency key", e);
+        }
+    }
+
+    @Override
+    public <T> String execute(String key, String requestHash, Supplier<T> operation) {
+        Remembered cached = responses.getIfPresent(key);
+        if (cached != null) return cached.replay(requestHash);
+
+        Remembered claim = new Remembered(requestHash, new CompletableFuture<>());
+        Remembered running = inFlight.putIfAbsent(key, claim);
+        if (running != null) return running.replay(requestHash);
+
+        try {
+            Remembered stored = load(key);
+            Outcome outcome = stored != null
+                    ? new Outcome(stored.replay(requestHash), true)
+                    : transactionTemplate.execute(status -> {
+                        T result = operation.get();
+                        String body = serialize(key, result);
+
+                        // El registro se inserta en la transacción del movimiento: se confirman los dos o ninguno.
+                        // Un 5xx no se recuerda, así que tampoco se confirma lo que alcanzó a escribir: el reintento lo aplica una sola vez
+                        boolean replayable = isReplayable(result);
+                        if (replayable) {
+                            store(key, requestHash, body);
+                        } else {
+                            status.setRollbackOnly();
+                        }
+                        return new Outcome(body, replayable);
+                    });
+
+            if (outcome.replayable()) responses.put(key, new Remembered(requestHash, CompletableFuture.completedFuture(outcome.body())));
+            claim.response.complete(outcome.body());
+            return outcome.body();
+        } catch (RuntimeException e) {
+            claim.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, claim);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(LocalDateTime.now().minus(ttl));
+    }
+
+    // Se guarda el cuerpo ya serializado para que el reintento reciba exactamente los mismos bytes
+    private Remembered load(String key) {
+        return idempotencyRecordRepository.findById(key)
+                .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(record -> new Remembered(record.getRequestHash(), CompletableFuture.completedFuture(record.getResponse())))
+                .orElse(null);
+    }
+
+    private String serialize(String key, Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the response for idempotency key " + key, e);
+        }
+    }
+
+    // Si no se puede guardar la respuesta la transacción se revierte y el movimiento no queda aplicado
+    private void store(String key, String requestHash, String response) {
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey(key)
+                .requestHash(requestHash)
+                .response(response)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Los errores 5xx son transitorios, el cliente debe poder reintentarlos
+    private boolean isReplayable(Object response) {
+        if (response instanceof BankAccountResponseDTO accountResponse) {
+            return accountResponse.getHttpStatus() == null || !accountResponse.getHttpStatus().is5xxServerError();
+        }
+        return response != null;
+    }
+
+    private record Outcome(String body, boolean replayable) {
+    }
+
+    private record Remembered(String requestHash, CompletableFuture<String> response) {
+
+        // Los registros anteriores al hash no lo tienen y se siguen respondiendo
+        private String replay(String requestHash) {
+            if (this.requestHash != null && !this.requestHash.equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "The Idempotency-Key was already used for a different request.");
+            }
+            return response.join();
+        }
+    }
+}
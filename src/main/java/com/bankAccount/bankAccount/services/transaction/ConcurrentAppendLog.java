@@ -0,0 +1,119 @@
+package com.bankAccount.bankAccount.services.transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free, multi-producer append-only log. Writers claim a slot with a single
+ * atomic increment and publish into chunks whose sizes double (1024, 2048, ...),
+ * so the chunk directory never has to be resized or copied.
+ * <p>
+ * Readers only see the published prefix of the log, so they never wait on a
+ * writer that claimed a slot and has not filled it yet.
+ */
+public final class ConcurrentAppendLog<T> {
+
+    private static final int FIRST_CHUNK_SHIFT = 10;
+    private static final int CHUNK_COUNT = Integer.SIZE - 1 - FIRST_CHUNK_SHIFT;
+    private static final long CAPACITY = (1L << (FIRST_CHUNK_SHIFT + CHUNK_COUNT)) - (1L << FIRST_CHUNK_SHIFT);
+
+    // Fills the slot of a writer that failed after claiming it.
+    private static final Object TOMBSTONE = new Object();
+
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks = new AtomicReferenceArray<>(CHUNK_COUNT);
+    private final AtomicLong claimed = new AtomicLong();
+    // Every slot below this mark is published (or a tombstone).
+    private final AtomicLong published = new AtomicLong();
+
+    public long append(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values cannot be appended");
+        }
+
+        long index = claimed.getAndIncrement();
+
+        if (index >= CAPACITY) {
+            throw new IllegalStateException("Append log capacity exceeded");
+        }
+
+        long position = index + (1L << FIRST_CHUNK_SHIFT);
+        int highBit = 63 - Long.numberOfLeadingZeros(position);
+        int offset = (int) (position - (1L << highBit));
+
+        try {
+            chunk(highBit - FIRST_CHUNK_SHIFT, highBit).set(offset, value);
+        } catch (RuntimeException | Error e) {
+            // Without the tombstone the watermark would stop at this slot.
+            AtomicReferenceArray<Object> chunk = chunks.get(highBit - FIRST_CHUNK_SHIFT);
+            if (chunk != null) chunk.set(offset, TOMBSTONE);
+            throw e;
+        } finally {
+            advance();
+        }
+        return index;
+    }
+
+    // Published entries only: a slot claimed by an in-flight writer is not counted yet.
+    public int size() {
+        return (int) published.get();
+    }
+
+    // Index returned by append, or below size().
+    @SuppressWarnings("unchecked")
+    public T get(long index) {
+        Object value = slot(index);
+
+        if (value == null || value == TOMBSTONE) {
+            throw new IndexOutOfBoundsException("No published entry at index " + index);
+        }
+
+        return (T) value;
+    }
+
+    // Every entry published before the call, in append order.
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> consumer) {
+        long size = published.get();
+
+        for (long i = 0; i < size; i++) {
+            Object value = slot(i);
+            if (value != TOMBSTONE) consumer.accept((T) value);
+        }
+    }
+
+    public List<T> snapshot() {
+        List<T> entries = new ArrayList<>(size());
+        forEach(entries::add);
+        return Collections.unmodifiableList(entries);
+    }
+
+    // Each writer moves the mark over every filled slot, so the last one to publish brings it up to date.
+    private void advance() {
+        long mark;
+        while ((mark = published.get()) < Math.min(claimed.get(), CAPACITY) && slot(mark) != null) {
+            published.compareAndSet(mark, mark + 1);
+        }
+    }
+
+    private Object slot(long index) {
+        long position = index + (1L << FIRST_CHUNK_SHIFT);
+        int highBit = 63 - Long.numberOfLeadingZeros(position);
+        AtomicReferenceArray<Object> chunk = chunks.get(highBit - FIRST_CHUNK_SHIFT);
+        return chunk == null ? null : chunk.get((int) (position - (1L << highBit)));
+    }
+
+    private AtomicReferenceArray<Object> chunk(int chunkIndex, int highBit) {
+        AtomicReferenceArray<Object> chunk = chunks.get(chunkIndex);
+
+        if (chunk == null) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(1 << highBit));
+            chunk = chunks.get(chunkIndex);
+        }
+
+        return chunk;
+    }
+}
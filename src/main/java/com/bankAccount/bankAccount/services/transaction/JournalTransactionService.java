@@ -0,0 +1,358 @@
+package com.bankAccount.bankAccount.services.transaction;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Almacén de transacciones en segmentos de tamaño fijo mapeados en memoria: [longitud][CRC32][payload].
+// La longitud se escribe al final, así una escritura incompleta se detecta como el fin del diario.
+@Service
+@ConditionalOnProperty(name = "bank.transactions.store", havingValue = "journal")
+public class JournalTransactionService implements TransactionService {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    // timestamp, accountId, amount, balanceAfter, tipo y las longitudes de numberAccount y reference
+    private static final int FIXED_PAYLOAD_SIZE = Long.BYTES * 4 + 1 + Short.BYTES * 2;
+    private static final int MAX_TEXT_BYTES = Short.MAX_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnWrite;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final CRC32 writeCrc = new CRC32();
+    private final TransactionHistoryIndex historyIndex;
+
+    private Segment active;
+    private int unsyncedFrom;
+
+    public JournalTransactionService(@Value("${bank.transactions.journal.dir:./journal}") String directory,
+                                     @Value("${bank.transactions.journal.segment-size:67108864}") int segmentSize,
+                                     @Value("${bank.transactions.journal.sync-on-write:false}") boolean syncOnWrite,
+                                     @Value("${bank.transactions.journal.index-per-account:1000}") int indexPerAccount) throws IOException {
+        if (segmentSize <= HEADER_SIZE + FIXED_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Journal segment size is too small: " + segmentSize);
+        }
+
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.syncOnWrite = syncOnWrite;
+        this.historyIndex = new TransactionHistoryIndex(indexPerAccount);
+
+        Files.createDirectories(this.directory);
+        recover();
+    }
+
+    @Override
+    public synchronized void addTransaction(TransactionRecord transaction) {
+        checkTextLengths(transaction);
+        append(transaction);
+        sync();
+    }
+
+    // Un lote completo se escribe bajo un solo bloqueo y con un único force; se valida entero antes para no dejarlo a medias
+    @Override
+    public synchronized void addTransactions(List<TransactionRecord> transactions) {
+        transactions.forEach(JournalTransactionService::checkTextLengths);
+        transactions.forEach(this::append);
+        sync();
+    }
+
+    @Override
+    public List<TransactionResponseDTO> getAllTransactions() {
+        List<TransactionResponseDTO> transactions = new ArrayList<>();
+        forEachRecord((transaction, pointer) -> transactions.add(transaction.toResponse()));
+        return transactions;
+    }
+
+    @Override
+    public List<String> getTransactionsList() {
+        List<String> messages = new ArrayList<>();
+        forEachRecord((transaction, pointer) -> messages.add(transaction.message()));
+        return messages;
+    }
+
+    @Override
+    public void forEachTransaction(Consumer<TransactionRecord> consumer) {
+        forEachRecord((transaction, pointer) -> consumer.accept(transaction));
+    }
+
+    @Override
+    public TransactionPageDTO getAccountTransactions(long accountId, String cursor, int size, LocalDateTime from, LocalDateTime to) {
+        return historyIndex.read(accountId, cursor, size, from, to, this::read);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+    }
+
+    private void append(TransactionRecord transaction) {
+        byte[] numberAccount = encode(transaction.numberAccount());
+        byte[] reference = encode(transaction.reference());
+        int payloadSize = FIXED_PAYLOAD_SIZE + length(numberAccount) + length(reference);
+        int recordSize = HEADER_SIZE + payloadSize;
+
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Transaction record of " + recordSize + " bytes does not fit in a journal segment");
+        }
+
+        if (segmentSize - active.limit < recordSize) {
+            roll();
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.limit;
+        int payloadStart = position + HEADER_SIZE;
+
+        buffer.putLong(payloadStart, transaction.timestamp());
+        buffer.putLong(payloadStart + Long.BYTES, transaction.accountId());
+        buffer.putLong(payloadStart + Long.BYTES * 2, transaction.amount());
+        buffer.putLong(payloadStart + Long.BYTES * 3, transaction.balanceAfter());
+        buffer.put(payloadStart + Long.BYTES * 4, (byte) transaction.type().ordinal());
+        int next = putText(buffer, payloadStart + Long.BYTES * 4 + 1, numberAccount);
+        putText(buffer, next, reference);
+
+        writeCrc.reset();
+        writeCrc.update(buffer.slice(payloadStart, payloadSize));
+        buffer.putInt(position + Integer.BYTES, (int) writeCrc.getValue());
+        buffer.putInt(position, payloadSize);
+
+        active.limit = position + recordSize;
+        historyIndex.add(transaction.accountId(), transaction.timestamp(), pointer(segments.size() - 1, position));
+    }
+
+    private void sync() {
+        if (syncOnWrite && active.limit > unsyncedFrom) {
+            active.buffer.force(unsyncedFrom, active.limit - unsyncedFrom);
+        }
+        unsyncedFrom = active.limit;
+    }
+
+    // El consumidor recibe cada registro junto con su puntero (segmento << 32 | posición)
+    private void forEachRecord(ObjLongConsumer<TransactionRecord> consumer) {
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer view = segments.get(i).buffer.duplicate();
+            int limit = segments.get(i).limit;
+            int position = 0;
+
+            while (position < limit) {
+                int payloadSize = view.getInt(position);
+                consumer.accept(decode(view, position + HEADER_SIZE), pointer(i, position));
+                position += HEADER_SIZE + payloadSize;
+            }
+        }
+    }
+
+    // Solo lee la cuenta y la fecha de cada registro, sin decodificar los textos
+    private void forEachEntry(TransactionHistoryIndex.Entry consumer) {
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer view = segments.get(i).buffer.duplicate();
+            int limit = segments.get(i).limit;
+            int position = 0;
+
+            while (position < limit) {
+                int payloadStart = position + HEADER_SIZE;
+                consumer.accept(view.getLong(payloadStart + Long.BYTES), view.getLong(payloadStart), pointer(i, position));
+                position = payloadStart + view.getInt(position);
+            }
+        }
+    }
+
+    private TransactionRecord read(long pointer) {
+        Segment segment = segments.get((int) (pointer >>> 32));
+        return decode(segment.buffer, (int) pointer + HEADER_SIZE);
+    }
+
+    private static long pointer(int segment, int position) {
+        return ((long) segment << 32) | position;
+    }
+
+    private TransactionRecord decode(ByteBuffer view, int payloadStart) {
+        int textStart = payloadStart + Long.BYTES * 4 + 1;
+        String numberAccount = getText(view, textStart);
+        String reference = getText(view, textStart + Short.BYTES + Math.max(view.getShort(textStart), 0));
+
+        return new TransactionRecord(
+                view.getLong(payloadStart + Long.BYTES),
+                numberAccount,
+                TYPES[view.get(payloadStart + Long.BYTES * 4)],
+                view.getLong(payloadStart + Long.BYTES * 2),
+                view.getLong(payloadStart + Long.BYTES * 3),
+                view.getLong(payloadStart),
+                reference
+        );
+    }
+
+    // Los textos se guardan como [longitud short][UTF-8]; una longitud -1 representa null
+    private static byte[] encode(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void checkTextLengths(TransactionRecord transaction) {
+        checkTextLength("numberAccount", transaction.numberAccount());
+        checkTextLength("reference", transaction.reference());
+    }
+
+    // La longitud se guarda en un short; cada char ocupa como mucho 3 bytes en UTF-8, así que solo se codifican los textos largos
+    private static void checkTextLength(String field, String text) {
+        if (text == null || text.length() <= MAX_TEXT_BYTES / 3) return;
+
+        int length = text.getBytes(StandardCharsets.UTF_8).length;
+        if (length > MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException("Transaction " + field + " of " + length + " bytes exceeds the journal limit of " + MAX_TEXT_BYTES + " bytes");
+        }
+    }
+
+    private static int length(byte[] text) {
+        return text == null ? 0 : text.length;
+    }
+
+    private static int putText(ByteBuffer buffer, int position, byte[] text) {
+        if (text == null) {
+            buffer.putShort(position, (short) -1);
+            return position + Short.BYTES;
+        }
+        buffer.putShort(position, (short) text.length);
+        buffer.put(position + Short.BYTES, text);
+        return position + Short.BYTES + text.length;
+    }
+
+    private static String getText(ByteBuffer view, int position) {
+        short length = view.getShort(position);
+        if (length < 0) return null;
+        return StandardCharsets.UTF_8.decode(view.slice(position + Short.BYTES, length)).toString();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            Segment segment = open(file);
+            segment.limit = scanValidRecords(segment.buffer);
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(open(segmentPath(0)));
+        }
+
+        active = segments.get(segments.size() - 1);
+        unsyncedFrom = active.limit;
+        discardTornTail(active);
+
+        forEachEntry(historyIndex::add);
+    }
+
+    private int scanValidRecords(MappedByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        int position = 0;
+
+        while (position + HEADER_SIZE <= segmentSize) {
+            int payloadSize = buffer.getInt(position);
+
+            if (payloadSize < FIXED_PAYLOAD_SIZE || payloadSize > segmentSize - position - HEADER_SIZE) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(buffer.slice(position + HEADER_SIZE, payloadSize));
+
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+
+            position += HEADER_SIZE + payloadSize;
+        }
+
+        return position;
+    }
+
+    // A crash in the middle of an append can leave a partial record behind; clear it before writing over it.
+    private void discardTornTail(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = segment.limit;
+
+        if (position + Integer.BYTES > segmentSize || buffer.getInt(position) == 0) {
+            return;
+        }
+
+        for (int i = position; i < segmentSize; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+    }
+
+    private void roll() {
+        try {
+            active.buffer.force();
+            Segment next = open(segmentPath(active.index + 1));
+            segments.add(next);
+            active = next;
+            unsyncedFrom = 0;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open a new journal segment", e);
+        }
+    }
+
+    private Segment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        String name = file.getFileName().toString();
+        int index = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        return new Segment(index, channel, buffer);
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static final class Segment {
+        private final int index;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int limit;
+
+        private Segment(int index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bankAccount.bankAccount.services.transaction;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+// Índice por cuenta ordenado por (timestamp, puntero); las páginas se leen con cursor y cuestan según su tamaño.
+// Si está acotado solo guarda las maxPerAccount entradas más recientes y no pagina más allá de ellas.
+public final class TransactionHistoryIndex {
+
+    private final ConcurrentMap<Long, History> accounts = new ConcurrentHashMap<>();
+    private final int maxPerAccount;
+
+    public TransactionHistoryIndex() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public TransactionHistoryIndex(int maxPerAccount) {
+        if (maxPerAccount <= 0) {
+            throw new IllegalArgumentException("History index size per account must be positive: " + maxPerAccount);
+        }
+        this.maxPerAccount = maxPerAccount;
+    }
+
+    public void add(long accountId, long timestamp, long pointer) {
+        History history = accounts.computeIfAbsent(accountId, id -> new History());
+        history.keys.add(new Key(timestamp, pointer));
+
+        // Se descarta la entrada más antigua; lo que queda sigue siendo un sufijo contiguo del historial
+        if (history.size.incrementAndGet() > maxPerAccount && history.keys.pollFirst() != null) {
+            history.size.decrementAndGet();
+            history.truncated = true;
+        }
+    }
+
+    public TransactionPageDTO read(long accountId, String cursor, int size, LocalDateTime from, LocalDateTime to,
+                                   LongFunction<TransactionRecord> resolver) {
+        Page page;
+        try {
+            page = page(accountId, cursor, size, toEpochMilli(from), toEpochMilli(to));
+        } catch (IllegalArgumentException e) {
+            return TransactionPageDTO.builder()
+                    .message(e.getMessage())
+                    .success(false)
+                    .httpStatus(HttpStatus.BAD_REQUEST)
+                    .build();
+        }
+
+        List<TransactionRecord> transactions = new ArrayList<>(page.pointers().size());
+        for (long pointer : page.pointers()) {
+            transactions.add(resolver.apply(pointer));
+        }
+
+        return TransactionPageDTO.builder()
+                .message(page.truncated()
+                        ? "Transactions for account with ID: " + accountId + " (only the latest " + maxPerAccount + " are paged, use the export for older ones)"
+                        : "Transactions for account with ID: " + accountId)
+                .success(true)
+                .data(transactions)
+                .nextCursor(page.nextCursor())
+                .hasNext(page.hasNext())
+                .httpStatus(HttpStatus.OK)
+                .build();
+    }
+
+    /**
+     * @param cursor opaque value returned as {@link Page#nextCursor()} by the previous page, or {@code null}
+     * @param from   inclusive lower bound in epoch millis, or {@code null}
+     * @param to     exclusive upper bound in epoch millis, or {@code null}
+     * @throws IllegalArgumentException if the cursor is malformed or points past the indexed history
+     */
+    public Page page(long accountId, String cursor, int size, Long from, Long to) {
+        History history = accounts.get(accountId);
+        if (history == null) return new Page(List.of(), null, false);
+
+        Key upper = cursor != null ? Key.parse(cursor) : new Key(to != null ? to : Long.MAX_VALUE, Long.MIN_VALUE);
+        if (to != null && upper.compareTo(new Key(to, Long.MIN_VALUE)) > 0) {
+            upper = new Key(to, Long.MIN_VALUE);
+        }
+        Key lower = new Key(from != null ? from : Long.MIN_VALUE, Long.MIN_VALUE);
+
+        if (upper.compareTo(lower) <= 0) return new Page(List.of(), null, false);
+
+        // Un cursor más antiguo que la ventana indexada se rechaza en lugar de recorrer todo el almacén
+        if (cursor != null && history.truncated && !reachesIntoIndex(history, upper)) {
+            throw new IllegalArgumentException("Cursor " + cursor + " is older than the latest " + maxPerAccount
+                    + " transactions of the account, use the export for older ones");
+        }
+
+        // Se lee uno de más para saber si hay otra página
+        List<Key> newest = new ArrayList<>(size + 1);
+        for (Key key : history.keys.subSet(lower, true, upper, false).descendingSet()) {
+            newest.add(key);
+            if (newest.size() > size) return toPage(newest, size, false);
+        }
+
+        // Al agotar la ventana se corta la página; lo anterior solo existe en el almacén
+        return toPage(newest, size, history.truncated && reachesPastIndex(history, lower));
+    }
+
+    private static boolean reachesIntoIndex(History history, Key upper) {
+        Key oldest = history.keys.isEmpty() ? null : history.keys.first();
+        return oldest != null && upper.compareTo(oldest) > 0;
+    }
+
+    private static boolean reachesPastIndex(History history, Key lower) {
+        Key oldest = history.keys.isEmpty() ? null : history.keys.first();
+        return oldest == null || lower.compareTo(oldest) < 0;
+    }
+
+    private static Page toPage(List<Key> newestFirst, int size, boolean truncated) {
+        List<Long> pointers = new ArrayList<>(Math.min(newestFirst.size(), size));
+        for (int i = 0; i < newestFirst.size() && i < size; i++) {
+            pointers.add(newestFirst.get(i).pointer);
+        }
+
+        String nextCursor = newestFirst.size() > size ? newestFirst.get(size - 1).format() : null;
+        return new Page(pointers, nextCursor, truncated);
+    }
+
+    private static Long toEpochMilli(LocalDateTime date) {
+        return date == null ? null : date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record Page(List<Long> pointers, String nextCursor, boolean truncated) {
+
+        // El cursor solo existe si se leyó una entrada más allá de la página
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(long accountId, long timestamp, long pointer);
+    }
+
+    private static final class History {
+        private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>();
+        // size() de ConcurrentSkipListSet recorre todo el conjunto
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile boolean truncated;
+    }
+
+    private record Key(long timestamp, long pointer) implements Comparable<Key> {
+
+        private static Key parse(String cursor) {
+            int separator = cursor.indexOf('-', 1);
+            if (separator < 0) throw new IllegalArgumentException("Invalid cursor: " + cursor);
+
+            try {
+                return new Key(Long.parseLong(cursor.substring(0, separator)), Long.parseLong(cursor.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        private String format() {
+            return timestamp + "-" + pointer;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(timestamp, other.timestamp);
+            return byTime != 0 ? byTime : Long.compare(pointer, other.pointer);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bankAccount.bankAccount.services.transaction;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Saca el registro de transacciones de la petición: un único hilo vacía la cola por lotes hacia el TransactionService.
+// Con la cola llena decide la BackpressurePolicy (ninguna descarta) y lo registrado dentro de una transacción espera a su commit.
+@Component
+public class TransactionRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionRecorder.class);
+
+    public enum BackpressurePolicy { BLOCK, CALLER_RUNS }
+
+    private final TransactionService transactionService;
+    private final BlockingQueue<TransactionRecord> queue;
+    private final BackpressurePolicy policy;
+    private final int batchSize;
+    private final Thread writer;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public TransactionRecorder(TransactionService transactionService,
+                               @Value("${bank.transactions.recorder.queue-capacity:65536}") int queueCapacity,
+                               @Value("${bank.transactions.recorder.batch-size:1000}") int batchSize,
+                               @Value("${bank.transactions.recorder.backpressure:BLOCK}") BackpressurePolicy policy) {
+        this.transactionService = transactionService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.policy = policy;
+
+        this.writer = new Thread(this::run, "transaction-recorder");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(TransactionRecord transaction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().add(transaction);
+            return;
+        }
+        enqueue(transaction);
+    }
+
+    // Espera a que todo lo encolado antes de la llamada quede escrito
+    public void flush() {
+        long target = enqueued.get();
+        while (written.get() < target && writer.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+
+        // Lo que se haya encolado mientras el escritor terminaba se escribe aquí
+        List<TransactionRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        write(remaining);
+        written.addAndGet(remaining.size());
+    }
+
+    // Un solo callback por transacción; si se revierte, sus registros se descartan
+    @SuppressWarnings("unchecked")
+    private List<TransactionRecord> pendingInTransaction() {
+        List<TransactionRecord> pending = (List<TransactionRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) return pending;
+
+        List<TransactionRecord> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionRecorder.this);
+                if (status == STATUS_COMMITTED) created.forEach(TransactionRecorder.this::enqueue);
+            }
+        });
+        return created;
+    }
+
+    private void enqueue(TransactionRecord transaction) {
+        if (!running) {
+            write(transaction);
+            return;
+        }
+
+        if (queue.offer(transaction)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    queue.put(transaction);
+                    enqueued.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    write(transaction);
+                }
+            }
+            case CALLER_RUNS -> write(transaction);
+        }
+    }
+
+    private void run() {
+        List<TransactionRecord> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                TransactionRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                written.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(TransactionRecord transaction) {
+        write(List.of(transaction));
+    }
+
+    private void write(List<TransactionRecord> batch) {
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionService.addTransactions(batch);
+        } catch (RuntimeException e) {
+            log.error("Unable to record a batch of {} transactions", batch.size(), e);
+        }
+    }
+}
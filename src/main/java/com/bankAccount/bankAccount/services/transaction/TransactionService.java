@@ -1,13 +1,31 @@
 package com.bankAccount.bankAccount.services.transaction;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
 import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionService {
 
-    void addTransaction(String message, double amount);
+    void addTransaction(TransactionRecord transaction);
+
+    default void addTransactions(List<TransactionRecord> transactions) {
+        transactions.forEach(this::addTransaction);
+    }
 
     List<TransactionResponseDTO> getAllTransactions();
 
     List<String> getTransactionsList();
 
+    // Recorre todas las transacciones en orden sin materializar una lista
+    void forEachTransaction(Consumer<TransactionRecord> consumer);
+
+    /**
+     * Newest first page of an account history. {@code from} is inclusive and
+     * {@code to} exclusive; either may be {@code null}.
+     */
+    TransactionPageDTO getAccountTransactions(long accountId, String cursor, int size, LocalDateTime from, LocalDateTime to);
 }
@@ -1,42 +1,49 @@
 package com.bankAccount.bankAccount.services.transaction;
 
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
 import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
+@ConditionalOnProperty(name = "bank.transactions.store", havingValue = "memory", matchIfMissing = true)
 public class TransactionServiceImpl implements TransactionService {
 
-    private final List<TransactionResponseDTO> transactionList = new ArrayList<>();
-    private final List<String> messagesList = new ArrayList<>();
+    private final ConcurrentAppendLog<TransactionRecord> transactionLog = new ConcurrentAppendLog<>();
+    private final TransactionHistoryIndex historyIndex = new TransactionHistoryIndex();
 
     @Override
-    public void addTransaction(String message, double amount) {
-        TransactionResponseDTO transaction = TransactionResponseDTO.builder()
-                .message(message)
-                .success(true)
-                .amount(amount)
-                .date(LocalDateTime.now())
-                .httpStatus(HttpStatus.OK)
-                .build();
-
-        transactionList.add(transaction);
-        messagesList.add(transaction.getMessage());
+    public void addTransaction(TransactionRecord transaction) {
+        long position = transactionLog.append(transaction);
+        historyIndex.add(transaction.accountId(), transaction.timestamp(), position);
     }
 
     @Override
     public List<TransactionResponseDTO> getAllTransactions() {
-        return List.copyOf(transactionList);
+        return transactionLog.snapshot().stream()
+                .map(TransactionRecord::toResponse)
+                .toList();
     }
 
     @Override
     public List<String> getTransactionsList() {
-        return transactionList.stream()
-                .map(TransactionResponseDTO::getMessage)
+        return transactionLog.snapshot().stream()
+                .map(TransactionRecord::message)
                 .toList();
     }
+
+    @Override
+    public void forEachTransaction(Consumer<TransactionRecord> consumer) {
+        transactionLog.forEach(consumer);
+    }
+
+    @Override
+    public TransactionPageDTO getAccountTransactions(long accountId, String cursor, int size, LocalDateTime from, LocalDateTime to) {
+        return historyIndex.read(accountId, cursor, size, from, to, transactionLog::get);
+    }
 }
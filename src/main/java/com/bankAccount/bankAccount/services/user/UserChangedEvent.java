@@ -0,0 +1,7 @@
+package com.bankAccount.bankAccount.services.user;
+
+/**
+ * Published when a user is updated or deleted. Carries the email the user had
+ * before the change so caches keyed by email can drop the old entry.
+ */
+public record UserChangedEvent(long idUser, String email) {}
@@ -0,0 +1,10 @@
+package com.bankAccount.bankAccount.services.user;
+
+import com.bankAccount.bankAccount.dto.user.UserImportResultDTO;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    UserImportResultDTO importUsers(InputStream csv);
+}
@@ -0,0 +1,331 @@
+package com.bankAccount.bankAccount.services.user;
+
+import com.bankAccount.bankAccount.dto.user.UserImportErrorDTO;
+import com.bankAccount.bankAccount.dto.user.UserImportResultDTO;
+import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Importa usuarios desde un CSV identificationNumber,name,email,password. Los emails se comparan en memoria
+// sin distinguir mayúsculas, las contraseñas se hashean en un pool acotado y cada bloque se inserta en su propia transacción.
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+    private static final int COLUMNS = 4;
+    // Contraseñas que ya vienen como hash BCrypt del sistema anterior se guardan tal cual
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashingPool;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${bank.users.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${bank.users.import.hash-threads:0}") int hashThreads,
+                                 @Value("${bank.users.import.max-errors:1000}") int maxErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        // Cola acotada: si el hash no da abasto, el hilo lector también hashea en lugar de acumular filas.
+        // Tras el cierre la tarea falla en lugar de descartarse, para que su fila no quede esperando
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        ((HashTask) runnable).abandon();
+                    } else {
+                        runnable.run();
+                    }
+                });
+    }
+
+    @Override
+    public UserImportResultDTO importUsers(InputStream csv) {
+        Import state = new Import(loadEmails());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<PendingUser> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long row = 0;
+
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank() || (row == 1 && isHeader(line))) continue;
+
+                state.rowsRead++;
+                PendingUser pending = parse(row, line, state);
+                if (pending == null) continue;
+
+                chunk.add(pending);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, state);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            write(chunk, state);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("User import finished: {} rows read, {} imported, {} failed", state.rowsRead, state.imported, state.failed);
+
+        return UserImportResultDTO.builder()
+                .rowsRead(state.rowsRead)
+                .imported(state.imported)
+                .failed(state.failed)
+                .errors(state.errors)
+                .build();
+    }
+
+    // Lo que no termine en el plazo falla, y sus filas se reportan como error
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        hashingPool.shutdown();
+
+        if (!hashingPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            for (Runnable queued : hashingPool.shutdownNow()) {
+                ((HashTask) queued).abandon();
+            }
+        }
+    }
+
+    private Set<String> loadEmails() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                Set<String> loaded = new HashSet<>();
+                emails.forEach(email -> loaded.add(emailKey(email)));
+                return loaded;
+            }
+        });
+    }
+
+    private PendingUser parse(long row, String line, Import state) {
+        List<String> fields = parseLine(line);
+
+        if (fields.size() != COLUMNS) {
+            state.error(row, null, "Expected " + COLUMNS + " columns but found " + fields.size() + ".");
+            return null;
+        }
+
+        String identificationNumber = fields.get(0).trim();
+        String name = fields.get(1).trim();
+        String email = fields.get(2).trim();
+        String password = fields.get(3);
+
+        if (identificationNumber.isEmpty() || name.isEmpty() || email.isEmpty() || password.isEmpty()) {
+            state.error(row, email, "Missing required field.");
+            return null;
+        }
+        if (email.indexOf('@') < 1) {
+            state.error(row, email, "Invalid email.");
+            return null;
+        }
+        if (!state.emails.add(emailKey(email))) {
+            state.error(row, email, "Email already in use");
+            return null;
+        }
+
+        CompletableFuture<String> hash;
+        if (BCRYPT_HASH.matcher(password).matches()) {
+            hash = CompletableFuture.completedFuture(password);
+        } else {
+            HashTask task = new HashTask(() -> passwordEncoder.encode(password), new CompletableFuture<>());
+            hashingPool.execute(task);
+            hash = task.hash();
+        }
+
+        return new PendingUser(row, User.builder()
+                .identificationNumber(identificationNumber)
+                .name(name)
+                .email(email)
+                .build(), hash);
+    }
+
+    private void write(List<PendingUser> chunk, Import state) {
+        List<PendingUser> ready = new ArrayList<>(chunk.size());
+
+        for (PendingUser pending : chunk) {
+            try {
+                pending.user.setPassword(pending.hash.join());
+                ready.add(pending);
+            } catch (CompletionException e) {
+                state.error(pending.row, pending.user.getEmail(), "Error: " + e.getCause().getMessage());
+            }
+        }
+
+        if (ready.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Los usuarios importados no se cachean; la mayoría no iniciará sesión pronto
+                entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+                userRepository.saveAll(ready.stream().map(pending -> pending.user).toList());
+                userRepository.flush();
+                entityManager.clear();
+            });
+            state.imported += ready.size();
+        } catch (RuntimeException e) {
+            // Una sola fila en conflicto revierte el bloque; se reintenta fila a fila para rechazar solo las que fallan
+            log.warn("User import chunk failed, retrying its {} rows one by one: {}", ready.size(), e.getMessage());
+            writeOneByOne(ready, state);
+        }
+
+        log.info("User import progress: {} rows read, {} imported, {} failed", state.rowsRead, state.imported, state.failed);
+    }
+
+    private void writeOneByOne(List<PendingUser> rows, Import state) {
+        for (PendingUser pending : rows) {
+            // El id asignado en el intento revertido no existe en la base de datos
+            pending.user.setIdUser(0);
+
+            try {
+                Boolean inserted = transactionTemplate.execute(status -> {
+                    // Usuarios registrados mientras corría la importación, con otras mayúsculas
+                    if (userRepository.existsByEmailIgnoreCase(pending.user.getEmail())) return false;
+
+                    entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+                    userRepository.saveAndFlush(pending.user);
+                    entityManager.clear();
+                    return true;
+                });
+
+                if (Boolean.TRUE.equals(inserted)) {
+                    state.imported++;
+                } else {
+                    state.error(pending.row, pending.user.getEmail(), "Email already in use");
+                }
+            } catch (RuntimeException e) {
+                state.error(pending.row, pending.user.getEmail(), "Error: " + e.getMessage());
+            }
+        }
+    }
+
+    // Se compara sin distinguir mayúsculas; el email se guarda tal como viene en el archivo
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isHeader(String line) {
+        return line.replace("\uFEFF", "").trim().toLowerCase().startsWith("identificationnumber");
+    }
+
+    // Separa por comas respetando campos entre comillas dobles ("" representa una comilla)
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record PendingUser(long row, User user, CompletableFuture<String> hash) {}
+
+    private record HashTask(Supplier<String> encode, CompletableFuture<String> hash) implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                hash.complete(encode.get());
+            } catch (RuntimeException e) {
+                hash.completeExceptionally(e);
+            }
+        }
+
+        private void abandon() {
+            hash.completeExceptionally(new RejectedExecutionException("User import is shutting down"));
+        }
+    }
+
+    private final class Import {
+        private final Set<String> emails;
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+
+        private Import(Set<String> emails) {
+            this.emails = emails;
+        }
+
+        private void error(long row, String email, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportErrorDTO(row, email, message));
+            }
+        }
+    }
+}
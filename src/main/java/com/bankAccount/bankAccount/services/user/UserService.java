@@ -1,16 +1,20 @@
 package com.bankAccount.bankAccount.services.user;
 
+import com.bankAccount.bankAccount.dto.user.UserDTO;
 import com.bankAccount.bankAccount.dto.user.UserResponseDTO;
 import com.bankAccount.bankAccount.entities.User;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
 
-    List<User> getAllUsers();
+    List<UserDTO> getAllUsers(long afterId, int size);
 
     UserResponseDTO registerUser(User user);
 
+    CompletableFuture<UserResponseDTO> registerUserAsync(User user);
+
     UserResponseDTO updateUser(long idUser, User user);
 
     UserResponseDTO deleteUser(long idUser);
@@ -1,16 +1,22 @@
 package com.bankAccount.bankAccount.services.user;
 
+import com.bankAccount.bankAccount.dto.user.UserDTO;
 import com.bankAccount.bankAccount.dto.user.UserResponseDTO;
 import com.bankAccount.bankAccount.entities.User;
 import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.auth.PasswordHashingExecutor;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
 import com.bankAccount.bankAccount.utils.ResponseHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -24,16 +30,25 @@ public class UserServiceImpl implements UserService {
     @Autowired
     ResponseHandler responseHandler;
 
+    @Autowired
+    TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    PasswordHashingExecutor passwordHashingExecutor;
+
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserDTO> getAllUsers(long afterId, int size) {
+        return userRepository.findUsersAfter(afterId, Limit.of(size));
     }
 
     @Override
     public UserResponseDTO registerUser(User user) {
         return responseHandler.executeSafelyUser(() ->
                 Optional.of(user)
-                    .filter(u -> !userRepository.existsByEmail(u.getEmail()))
+                    .filter(u -> !userRepository.existsByEmailIgnoreCase(u.getEmail()))
                     .map( u -> {
                         u.setPassword(passwordEncoder.encode(u.getPassword()));
                         User createdUser = userRepository.save(u);
@@ -43,17 +58,36 @@ public class UserServiceImpl implements UserService {
         );
     }
 
+    @Override
+    public CompletableFuture<UserResponseDTO> registerUserAsync(User user) {
+        return passwordHashingExecutor.submit(
+                () -> registerUser(user),
+                () -> responseHandler.buildErrorUser("Too many registrations in progress, try again later.", HttpStatus.SERVICE_UNAVAILABLE)
+        );
+    }
 
     @Override
     public UserResponseDTO updateUser(long idUser, User user) {
         return responseHandler.executeSafelyUser(() ->
                 userRepository.findById(idUser)
                     .map(userDB -> {
+                        String previousEmail = userDB.getEmail();
+
+                        // Los tokens llevan el email, así que si cambia se revocan los emitidos
+                        boolean emailChanged = !previousEmail.equals(user.getEmail());
+                        if (emailChanged) {
+                            userDB.setTokenVersion(userDB.getTokenVersion() + 1);
+                        }
+
                         userDB.setIdentificationNumber(user.getIdentificationNumber());
                         userDB.setName(user.getName());
                         userDB.setEmail(user.getEmail());
 
                         User updatedUser = userRepository.save(userDB);
+                        if (emailChanged) {
+                            tokenVersionRegistry.revoke(idUser);
+                        }
+                        eventPublisher.publishEvent(new UserChangedEvent(idUser, previousEmail));
                         return responseHandler.buildSuccessUser("User updated successfully", updatedUser);
                     })
                     .orElseGet(() -> responseHandler.buildErrorUser("The user with ID: " + idUser + " does not exist.", HttpStatus.NOT_FOUND))
@@ -66,6 +100,8 @@ public class UserServiceImpl implements UserService {
                 userRepository.findById(idUser)
                         .map(userDB -> {
                             userRepository.deleteById(idUser);
+                            tokenVersionRegistry.revoke(idUser);
+                            eventPublisher.publishEvent(new UserChangedEvent(idUser, userDB.getEmail()));
                             return responseHandler.buildSuccessUser("User deleted successfully", null);
                         })
                         .orElseGet(() -> responseHandler.buildErrorUser("The user with ID: " + idUser + " does not exist.", HttpStatus.NOT_FOUND))
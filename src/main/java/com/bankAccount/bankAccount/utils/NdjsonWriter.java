@@ -0,0 +1,50 @@
+package com.bankAccount.bankAccount.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line and flushes the underlying stream every
+ * {@code flushEvery} lines, so exports are sent in chunks instead of buffered.
+ */
+public final class NdjsonWriter implements Closeable {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final SequenceWriter sequence;
+    private final int flushEvery;
+    private int pending;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out, int flushEvery) throws IOException {
+        this.sequence = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        this.flushEvery = flushEvery;
+    }
+
+    public void write(Object value) {
+        try {
+            sequence.write(value);
+
+            if (++pending == flushEvery) {
+                sequence.flush();
+                pending = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequence.close();
+    }
+}
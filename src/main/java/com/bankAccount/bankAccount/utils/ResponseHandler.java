@@ -9,6 +9,9 @@ import com.bankAccount.bankAccount.entities.BankAccount;
 import com.bankAccount.bankAccount.entities.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.function.Supplier;
 
@@ -96,6 +99,7 @@ public class ResponseHandler {
         try {
             return action.get();
         } catch (Exception e) {
+            rollbackCurrentTransaction();
             return buildErrorUser("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
@@ -104,6 +108,7 @@ public class ResponseHandler {
         try {
             return action.get();
         } catch (Exception e) {
+            rollbackCurrentTransaction();
             return buildErrorAccount("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
@@ -112,7 +117,18 @@ public class ResponseHandler {
         try {
             return action.get();
         } catch (Exception e) {
+            rollbackCurrentTransaction();
             return buildErrorAuth("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // La excepción no llega al @Transactional, así que se marca la transacción para que lo ya escrito no se confirme
+    private void rollbackCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) return;
+        try {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } catch (NoTransactionException e) {
+            // Transacción abierta con TransactionTemplate: la revierte quien la abrió al ver la respuesta de error
+        }
+    }
 }
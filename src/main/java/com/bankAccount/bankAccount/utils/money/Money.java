@@ -0,0 +1,50 @@
+package com.bankAccount.bankAccount.utils.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Amounts are carried as primitive {@code long} minor units (cents for USD) so
+ * ledger arithmetic is exact and never allocates. The scale comes from the
+ * currency's ISO 4217 fraction digits; decimals only appear at the API edges.
+ */
+public final class Money {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private Money() {
+    }
+
+    public static int scale(Currency currency) {
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+
+    // Lanza ArithmeticException si el monto tiene más decimales de los que admite la moneda
+    public static long toMinorUnits(BigDecimal amount, Currency currency) {
+        return amount.movePointRight(scale(currency)).longValueExact();
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return toMinorUnits(amount, DEFAULT_CURRENCY);
+    }
+
+    public static BigDecimal toDecimal(long minorUnits, Currency currency) {
+        return BigDecimal.valueOf(minorUnits, scale(currency));
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return toDecimal(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static String format(long minorUnits) {
+        return toDecimal(minorUnits).toPlainString();
+    }
+
+    public static long add(long minorUnits, long other) {
+        return Math.addExact(minorUnits, other);
+    }
+
+    public static long subtract(long minorUnits, long other) {
+        return Math.subtractExact(minorUnits, other);
+    }
+}
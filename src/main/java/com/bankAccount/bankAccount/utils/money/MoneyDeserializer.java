@@ -0,0 +1,39 @@
+package com.bankAccount.bankAccount.utils.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Lee montos decimales (1500.00 o "1500.00") y los convierte a unidades menores
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        BigDecimal amount;
+
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            try {
+                amount = new BigDecimal(p.getText().trim());
+            } catch (NumberFormatException e) {
+                throw InvalidFormatException.from(p, "Invalid amount", p.getText(), Long.class);
+            }
+        } else {
+            amount = p.getDecimalValue();
+        }
+
+        try {
+            return Money.toMinorUnits(amount);
+        } catch (ArithmeticException e) {
+            throw InvalidFormatException.from(p, "Amount exceeds the precision of " + Money.DEFAULT_CURRENCY, amount, Long.class);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bankAccount.bankAccount.utils.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Escribe los montos en unidades menores como número decimal (150000 -> 1500.00)
+public class MoneySerializer extends StdSerializer<Long> {
+
+    public MoneySerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeNumber(Money.toDecimal(minorUnits));
+    }
+}
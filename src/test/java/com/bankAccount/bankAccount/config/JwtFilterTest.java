@@ -0,0 +1,119 @@
+package com.bankAccount.bankAccount.config;
+
+import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtFilterTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    // Hace de columna users.token_version
+    private final AtomicInteger storedVersion = new AtomicInteger();
+    private final TokenVersionRegistry tokenVersionRegistry =
+            new TokenVersionRegistry(idUser -> storedVersion.get(), 100, Duration.ofMinutes(1));
+    private JwtFilter jwtFilter;
+
+    @BeforeEach
+    public void setUp() {
+        jwtFilter = new JwtFilter(jwtUtil, userDetailsService, tokenVersionRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testStatelessModeBuildsAuthenticationFromClaims() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = jwtUtil.generateToken("john.doe@example.com", 7L, List.of("ROLE_USER"), 0);
+
+        // Act
+        jwtFilter.doFilter(requestWith(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("john.doe@example.com", authentication.getName());
+        assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+
+        // Sin estado no se consulta la base de datos
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testRevokedTokenIsNotAuthenticated() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = jwtUtil.generateToken("john.doe@example.com", 7L, List.of(), tokenVersionRegistry.currentVersion(7L));
+        storedVersion.incrementAndGet();
+        tokenVersionRegistry.revoke(7L);
+
+        // Act
+        jwtFilter.doFilter(requestWith(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void testTokenOfDeletedUserIsNotAuthenticated() throws Exception {
+        // Arrange
+        TokenVersionRegistry registry = new TokenVersionRegistry(
+                idUser -> Integer.MAX_VALUE, 100, Duration.ofMinutes(1));
+        jwtFilter = new JwtFilter(jwtUtil, userDetailsService, registry);
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = jwtUtil.generateToken("john.doe@example.com", 7L, List.of(), 0);
+
+        // Act
+        jwtFilter.doFilter(requestWith(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void testDatabaseModeLoadsUser() throws Exception {
+        // Arrange
+        String token = jwtUtil.generateToken("john.doe@example.com", 7L, List.of(), 0);
+        when(userDetailsService.loadUserByUsername("john.doe@example.com"))
+                .thenReturn(new UserDetail(7L, 0, "john.doe@example.com", "hashed", List.of()));
+
+        // Act
+        jwtFilter.doFilter(requestWith(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertEquals("john.doe@example.com", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(userDetailsService).loadUserByUsername("john.doe@example.com");
+    }
+
+    private MockHttpServletRequest requestWith(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/get-balance-by-account/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
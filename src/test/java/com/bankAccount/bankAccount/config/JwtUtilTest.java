@@ -0,0 +1,107 @@
+package com.bankAccount.bankAccount.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    public void testDecodeReturnsAllClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken("john.doe@example.com", 42L, List.of(), 0);
+
+        // Act
+        Optional<JwtPrincipal> principal = jwtUtil.decode(token);
+
+        // Assert
+        assertTrue(principal.isPresent());
+        assertEquals("john.doe@example.com", principal.get().email());
+        assertEquals(42L, principal.get().id());
+        assertTrue(principal.get().expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    public void testDecodeReadsAuthoritiesAndVersion() {
+        // Arrange
+        String token = jwtUtil.generateToken("john.doe@example.com", 42L, List.of("ROLE_USER"), 3);
+
+        // Act
+        JwtPrincipal principal = jwtUtil.decode(token).orElseThrow();
+
+        // Assert
+        assertEquals(List.of("ROLE_USER"), principal.authorities());
+        assertEquals(3, principal.version());
+    }
+
+    @Test
+    public void testDecodeRejectsTamperedToken() {
+        // Arrange
+        String token = jwtUtil.generateToken("john.doe@example.com", 42L, List.of(), 0);
+        String forged = JWT.create()
+                .withSubject("attacker@example.com")
+                .withClaim("id", 1L)
+                .sign(Algorithm.HMAC256("another_secret"));
+
+        // Act & Assert
+        assertTrue(jwtUtil.decode(token.substring(0, token.length() - 2)).isEmpty());
+        assertTrue(jwtUtil.decode(forged).isEmpty());
+        assertTrue(jwtUtil.decode("not-a-token").isEmpty());
+    }
+
+    @Test
+    public void testDecodeRejectsExpiredToken() {
+        // Arrange
+        String expired = JWT.create()
+                .withSubject("john.doe@example.com")
+                .withClaim("id", 42L)
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256("secret_training_key_5T3V3N"));
+
+        // Act & Assert
+        assertTrue(jwtUtil.decode(expired).isEmpty());
+    }
+
+    @Test
+    public void testCachedDecodeReturnsSamePrincipal() {
+        // Arrange
+        JwtUtil cachedJwtUtil = new JwtUtil(true, 100);
+        String token = cachedJwtUtil.generateToken("john.doe@example.com", 42L, List.of(), 0);
+
+        // Act
+        JwtPrincipal first = cachedJwtUtil.decode(token).orElseThrow();
+        JwtPrincipal second = cachedJwtUtil.decode(token).orElseThrow();
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, hits(cachedJwtUtil));
+    }
+
+    @Test
+    public void testDisabledCacheRegistersNoMetrics() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        jwtUtil.bindTo(registry);
+
+        // Assert
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private static double hits(JwtUtil jwtUtil) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtUtil.bindTo(registry);
+        return registry.get("cache.gets").tag("cache", "jwt.tokens").tag("result", "hit").functionCounter().count();
+    }
+}
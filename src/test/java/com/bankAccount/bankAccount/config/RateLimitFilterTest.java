@@ -0,0 +1,180 @@
+package com.bankAccount.bankAccount.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    // 5 peticiones por IP en general, 3 de login por IP y 2 por email
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper(), true, 1000, Duration.ofMinutes(10),
+            5, 1, 3, 1, 2, 1);
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicReference<String> bodySeen = new AtomicReference<>();
+
+    private final FilterChain chain = (request, response) -> {
+        passed.incrementAndGet();
+        bodySeen.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    };
+
+    @Test
+    public void testLoginIsThrottledPerEmailAcrossIps() throws Exception {
+        // Act
+        MockHttpServletResponse first = login("10.0.0.1", "john.doe@example.com");
+        MockHttpServletResponse second = login("10.0.0.2", "JOHN.DOE@example.com");
+        MockHttpServletResponse third = login("10.0.0.3", "john.doe@example.com");
+
+        // Assert: el email se normaliza, así que la tercera petición agota su cubo
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(429, third.getStatus());
+        assertEquals("60", third.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(third.getContentAsString().contains("\"success\":false"));
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    public void testLoginIsThrottledPerIp() throws Exception {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i + "@example.com").getStatus());
+        }
+        MockHttpServletResponse blocked = login("10.0.0.1", "other@example.com");
+
+        // Assert
+        assertEquals(429, blocked.getStatus());
+        assertEquals(3, passed.get());
+    }
+
+    @Test
+    public void testBodyIsStillReadableDownstream() throws Exception {
+        // Act
+        login("10.0.0.1", "john.doe@example.com");
+
+        // Assert
+        assertEquals("{\"email\":\"john.doe@example.com\",\"password\":\"secret\"}", bodySeen.get());
+    }
+
+    @Test
+    public void testBodyCanBeReadAsynchronouslyDownstream() throws Exception {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        FilterChain asyncChain = (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data:" + new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContent("{\"email\":\"john.doe@example.com\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain);
+
+        // Assert
+        assertEquals(List.of("data:{\"email\":\"john.doe@example.com\"}", "done"), events);
+    }
+
+    @Test
+    public void testOtherRequestsUseTheGeneralIpBucket() throws Exception {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get("10.0.0.1").getStatus());
+        }
+
+        // Assert
+        assertEquals(429, get("10.0.0.1").getStatus());
+        assertEquals(200, get("10.0.0.2").getStatus());
+    }
+
+    @Test
+    public void testOversizedCredentialBodyIsRejected() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/register");
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent(new byte[16 * 1024]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertEquals(0, passed.get());
+    }
+
+    @Test
+    public void testDisabledFilterPassesEverything() throws Exception {
+        // Arrange
+        RateLimitFilter disabled = new RateLimitFilter(new ObjectMapper(), false, 1000, Duration.ofMinutes(10), 1, 1, 1, 1, 1, 1);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+            disabled.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        // Assert
+        assertEquals(3, passed.get());
+    }
+
+    @Test
+    public void testInvalidLimitConfigurationNamesTheProperty() {
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(new ObjectMapper(), true, 1000, Duration.ofMinutes(10), 5, 1, 3, 1, 2, 0));
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("bank.ratelimit.login.email.per-minute"));
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse get(String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setRemoteAddr(ip);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankAccount.bankAccount.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Cubo de 3 tokens que repone uno por segundo
+    private final RateLimiter limiter = new RateLimiter("bank.ratelimit.test", 3, 60, 1000, Duration.ofMinutes(10));
+
+    @Test
+    public void testBurstUpToCapacityThenReject() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", 0));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", 0);
+
+        // Assert: el siguiente token llega en un segundo
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    public void testRefillsOverTime() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1", 0);
+        }
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", SECOND));
+        assertTrue(limiter.tryAcquire("10.0.0.1", SECOND) > 0);
+
+        // Tras el tiempo de llenado el cubo vuelve a tener toda su capacidad, no más
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", 10 * SECOND));
+        }
+        assertTrue(limiter.tryAcquire("10.0.0.1", 10 * SECOND) > 0);
+    }
+
+    @Test
+    public void testKeysAreIndependent() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1", 0);
+        }
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire("10.0.0.1", 0) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", 0));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    public void testConcurrentAcquiresNeverExceedCapacity() throws Exception {
+        // Arrange
+        RateLimiter shared = new RateLimiter("bank.ratelimit.test", 50, 60, 1000, Duration.ofMinutes(10));
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // Act: todos usan el mismo instante, así que no hay reposición durante la prueba
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int j = 0; j < 100; j++) {
+                        if (shared.tryAcquire("10.0.0.1", 0) == 0) granted++;
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get(5, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(50, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNonPositiveRatesAreRejectedNamingTheProperty() {
+        // Act
+        IllegalArgumentException perMinute = assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter("bank.ratelimit.ip", 10, 0, 1000, Duration.ofMinutes(10)));
+        IllegalArgumentException capacity = assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter("bank.ratelimit.ip", 0, 60, 1000, Duration.ofMinutes(10)));
+
+        // Assert
+        assertEquals("bank.ratelimit.ip.per-minute must be greater than 0, got 0", perMinute.getMessage());
+        assertEquals("bank.ratelimit.ip.capacity must be greater than 0, got 0", capacity.getMessage());
+    }
+}
@@ -0,0 +1,76 @@
+package com.bankAccount.bankAccount.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+    @Test
+    public void testRepeatedTokenSkipsVerification() {
+        // Arrange
+        AtomicInteger verifications = new AtomicInteger();
+        JwtPrincipal principal = new JwtPrincipal("john.doe@example.com", 1L, List.of(), 0, Instant.now().plusSeconds(3600));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(principal, cache.get("token", jwt -> {
+                verifications.incrementAndGet();
+                return Optional.of(principal);
+            }).orElseThrow());
+        }
+
+        // Assert
+        assertEquals(1, verifications.get());
+        assertEquals(4, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void testInvalidTokenIsNotCached() {
+        // Arrange
+        AtomicInteger verifications = new AtomicInteger();
+
+        // Act
+        cache.get("forged", jwt -> {
+            verifications.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<JwtPrincipal> result = cache.get("forged", jwt -> {
+            verifications.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredTokenIsVerifiedAgain() {
+        // Arrange: el token ya venció, así que la entrada expira en cuanto se crea
+        AtomicInteger verifications = new AtomicInteger();
+        JwtPrincipal expired = new JwtPrincipal("john.doe@example.com", 1L, List.of(), 0, Instant.now().minusSeconds(1));
+
+        // Act
+        cache.get("expired", jwt -> {
+            verifications.incrementAndGet();
+            return Optional.of(expired);
+        });
+        cache.get("expired", jwt -> {
+            verifications.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+}
@@ -2,24 +2,38 @@ package com.bankAccount.bankAccount.controllers;
 
 import com.bankAccount.bankAccount.config.TestSecurityConfig;
 import com.bankAccount.bankAccount.controllers.bankAccount.BankAccountController;
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
 import com.bankAccount.bankAccount.entities.BankAccount;
 import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
 import com.bankAccount.bankAccount.config.JwtUtil;
 import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import com.bankAccount.bankAccount.services.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -39,31 +53,37 @@ class BankAccountControllerTest {
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockitoBean
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @MockitoBean
     private BankAccountService bankAccountService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void testGetAllAccountsByUser() throws Exception {
         // Arrange
         long userId = 1L;
 
-        List<BankAccount> mockAccounts = List.of(
-                BankAccount.builder()
+        List<BankAccountDTO> mockAccounts = List.of(
+                BankAccountDTO.builder()
                         .idAccount(1L)
                         .numberAccount("123456")
-                        .balance(1000.0)
+                        .balance(100000L)
                         .type("Saving")
                         .build(),
-                BankAccount.builder()
+                BankAccountDTO.builder()
                         .idAccount(2L)
                         .numberAccount("654321")
-                        .balance(2000.0)
+                        .balance(200000L)
                         .type("Checking")
                         .build()
         );
 
         // Simulamos la llamada al servicio
-        when(bankAccountService.getAllAccountsByUser(userId)).thenReturn(mockAccounts);
+        when(bankAccountService.getAllAccountsByUser(userId, 0, 50)).thenReturn(mockAccounts);
 
         // Act & Assert
         mockMvc.perform(get("/api/accounts/get-accounts-by-user/{id}", userId)
@@ -76,6 +96,23 @@ class BankAccountControllerTest {
                 .andExpect(jsonPath("$[1].type").value("Checking"));
     }
 
+    @Test
+    void testGetAllAccountsByUserClampsPageSize() throws Exception {
+        // Arrange
+        when(bankAccountService.getAllAccountsByUser(1L, 2, 200)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/get-accounts-by-user/{id}", 1L)
+                        .param("page", "2")
+                        .param("size", "100000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        // El tamaño solicitado se limita al máximo configurado
+        verify(bankAccountService).getAllAccountsByUser(1L, 2, 200);
+    }
+
 
     @Test
     void testGetBalanceByAccount() throws Exception {
@@ -108,7 +145,7 @@ class BankAccountControllerTest {
         long userId = 1L;
         BankAccount accountRequest = BankAccount.builder()
                 .numberAccount("123456789")
-                .balance(1500.0)
+                .balance(150000L)
                 .type("Saving")
                 .build();
 
@@ -139,7 +176,7 @@ class BankAccountControllerTest {
     void testDepositMoney() throws Exception {
         // Arrange
         long accountId = 1L;
-        double depositAmount = 500.0;
+        long depositAmount = 50000L; // 500.00 en centavos
 
         // DTO esperado
         BankAccountResponseDTO mockResponse = BankAccountResponseDTO.builder()
@@ -151,7 +188,7 @@ class BankAccountControllerTest {
         // Simulamos la llamada al servicio
         when(bankAccountService.depositMoney(accountId, depositAmount)).thenReturn(mockResponse);
 
-        String depositRequest = "{\"amount\": " + depositAmount + "}";
+        String depositRequest = "{\"amount\": 500.00}";
 
         // Act & Assert
         mockMvc.perform(post("/api/accounts/deposit/{id}", accountId)
@@ -168,7 +205,7 @@ class BankAccountControllerTest {
     void testWithdrawMoney() throws Exception {
         // Arrange
         long accountId = 1L;
-        double withdrawAmount = 300.0;
+        long withdrawAmount = 30000L; // 300.00 en centavos
 
         // DTO esperado
         BankAccountResponseDTO mockResponse = BankAccountResponseDTO.builder()
@@ -180,7 +217,7 @@ class BankAccountControllerTest {
         // Simulamos la llamada al servicio
         when(bankAccountService.withdrawMoney(accountId, withdrawAmount)).thenReturn(mockResponse);
 
-        String withdrawRequest = "{\"amount\": " + withdrawAmount + "}";
+        String withdrawRequest = "{\"amount\": 300.00}";
 
         // Act & Assert
         mockMvc.perform(post("/api/accounts/withdraw/{id}", accountId)
@@ -193,6 +230,128 @@ class BankAccountControllerTest {
     }
 
 
+    @Test
+    void testDepositMoneyWithIdempotencyKey() throws Exception {
+        // Arrange
+        String originalResponse = "{\"message\":\"Deposit successful\",\"success\":true,\"data\":{\"balance\":1500.00},\"httpStatus\":\"OK\"}";
+
+        // Simulamos un reintento: el servicio de idempotencia devuelve el cuerpo original ya serializado
+        when(idempotencyService.requestHash(eq("POST"), eq("/api/accounts/deposit/1"), any())).thenReturn("hash");
+        when(idempotencyService.execute(eq("anonymous:abc-123"), eq("hash"), any())).thenReturn(originalResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/accounts/deposit/{id}", 1L)
+                        .header("Idempotency-Key", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 500.00}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(originalResponse));
+
+        verify(bankAccountService, never()).depositMoney(anyLong(), anyLong());
+    }
+
+
+    @Test
+    void testIdempotencyKeyReusedForDifferentRequest() throws Exception {
+        // Arrange: la clave ya se usó con otro cuerpo
+        when(idempotencyService.execute(eq("anonymous:abc-123"), any(), any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "The Idempotency-Key was already used for a different request."));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/accounts/deposit/{id}", 1L)
+                        .header("Idempotency-Key", "abc-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 900.00}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(bankAccountService, never()).depositMoney(anyLong(), anyLong());
+    }
+
+
+    @Test
+    void testTransferMoney() throws Exception {
+        // Arrange
+        BankAccountResponseDTO mockResponse = BankAccountResponseDTO.builder()
+                .message("Transaction type: transfer. Amount: 250.00 . Current Balance: 750.00")
+                .success(true)
+                .httpStatus(HttpStatus.OK)
+                .build();
+
+        // Simulamos la llamada al servicio
+        when(bankAccountService.transferMoney(1L, 2L, 25000L)).thenReturn(mockResponse);
+
+        String transferRequest = "{\"fromId\": 1, \"toId\": 2, \"amount\": 250.00}";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transferRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Transaction type: transfer. Amount: 250.00 . Current Balance: 750.00"));
+
+        verify(bankAccountService).transferMoney(1L, 2L, 25000L);
+    }
+
+
+    @Test
+    void testExportAccounts() throws Exception {
+        // Arrange
+        // Simulamos el recorrido del servicio entregando dos cuentas al consumidor
+        doAnswer(invocation -> {
+            Consumer<BankAccountDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new BankAccountDTO(1L, "123456", 100000L, "Saving"));
+            consumer.accept(new BankAccountDTO(2L, "654321", 250050L, "Checking"));
+            return null;
+        }).when(bankAccountService).exportAccounts(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"idAccount\":1,\"numberAccount\":\"123456\",\"balance\":1000.00,\"type\":\"Saving\"}\n"
+                                + "{\"idAccount\":2,\"numberAccount\":\"654321\",\"balance\":2500.50,\"type\":\"Checking\"}"));
+    }
+
+
+    @Test
+    void testApplyBatch() throws Exception {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(1L, BatchOperationDTO.Operation.DEPOSIT, 50000L),
+                new BatchOperationDTO(2L, BatchOperationDTO.Operation.WITHDRAW, 30000L)
+        );
+
+        List<BatchResultDTO> mockResults = List.of(
+                new BatchResultDTO(1L, "Deposit successful", true, HttpStatus.OK),
+                new BatchResultDTO(2L, "Insufficient funds.", false, HttpStatus.BAD_REQUEST)
+        );
+
+        // Simulamos la llamada al servicio
+        when(bankAccountService.applyBatch(operations)).thenReturn(mockResults);
+
+        String batchRequest = "[{\"accountId\": 1, \"op\": \"DEPOSIT\", \"amount\": 500.00},"
+                + " {\"accountId\": 2, \"op\": \"WITHDRAW\", \"amount\": 300.00}]";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[1].accountId").value(2))
+                .andExpect(jsonPath("$[1].message").value("Insufficient funds."));
+    }
+
+
     @Test
     void testUpdateAccount() throws Exception {
         // Arrange
@@ -2,8 +2,12 @@ package com.bankAccount.bankAccount.controllers;
 
 import com.bankAccount.bankAccount.config.TestSecurityConfig;
 import com.bankAccount.bankAccount.controllers.transaction.TransactionController;
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
 import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
 import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
 import com.bankAccount.bankAccount.config.JwtUtil;
 import com.bankAccount.bankAccount.services.transaction.TransactionService;
 import lombok.AllArgsConstructor;
@@ -11,13 +15,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +47,9 @@ class TransactionControllerTest {
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockitoBean
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @MockitoBean
     private TransactionService transactionService;
 
@@ -44,11 +58,11 @@ class TransactionControllerTest {
         // Arrange
         List<TransactionResponseDTO> mockTransactions = List.of(
                 TransactionResponseDTO.builder()
-                        .amount(100.0)
+                        .amount(10000L)
                         .date(LocalDateTime.now())
                         .build(),
                 TransactionResponseDTO.builder()
-                        .amount(200.0)
+                        .amount(20000L)
                         .date(LocalDateTime.now())
                         .build()
         );
@@ -88,4 +102,82 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$[1]").value("Transaction-2"))
                 .andExpect(jsonPath("$[2]").value("Transaction-3"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAccountTransactions() throws Exception {
+        // Arrange
+        TransactionPageDTO mockPage = TransactionPageDTO.builder()
+                .message("Transactions for account with ID: 1")
+                .success(true)
+                .data(List.of(new TransactionRecord(1L, "123456", TransactionType.DEPOSIT, 50000L, 150000L, 1_700_000_000_000L, null)))
+                .nextCursor("1700000000000-0")
+                .hasNext(true)
+                .httpStatus(HttpStatus.OK)
+                .build();
+
+        // El tamaño solicitado supera el máximo y se acota
+        when(transactionService.getAccountTransactions(1L, null, 500, null, null)).thenReturn(mockPage);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/accounts/{accountId}", 1L)
+                        .param("size", "10000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].type").value("DEPOSIT"))
+                .andExpect(jsonPath("$.data[0].amount").value(500.0))
+                .andExpect(jsonPath("$.data[0].balanceAfter").value(1500.0))
+                .andExpect(jsonPath("$.nextCursor").value("1700000000000-0"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void testGetAccountTransactionsLastPage() throws Exception {
+        // Arrange
+        TransactionPageDTO mockPage = TransactionPageDTO.builder()
+                .message("Transactions for account with ID: 1")
+                .success(true)
+                .data(List.of(new TransactionRecord(1L, "123456", TransactionType.WITHDRAWAL, 20000L, 130000L, 1_700_000_001_000L, null)))
+                .hasNext(false)
+                .httpStatus(HttpStatus.OK)
+                .build();
+
+        when(transactionService.getAccountTransactions(1L, "1700000002000-5", 50, null, null)).thenReturn(mockPage);
+
+        // Act & Assert: en la última página no hay cursor ni página siguiente
+        mockMvc.perform(get("/api/transactions/accounts/{accountId}", 1L)
+                        .param("cursor", "1700000002000-5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testExportTransactions() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<TransactionRecord> consumer = invocation.getArgument(0);
+            consumer.accept(new TransactionRecord(1L, "123456", TransactionType.DEPOSIT, 50000L, 150000L, 1_700_000_000_000L, null));
+            consumer.accept(new TransactionRecord(1L, "123456", TransactionType.WITHDRAWAL, 20000L, 130000L, 1_700_000_001_000L, null));
+            return null;
+        }).when(transactionService).forEachTransaction(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/transactions/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"DEPOSIT\""));
+        assertTrue(lines[1].contains("\"balanceAfter\":1300.00"));
+    }
+}
@@ -2,10 +2,15 @@ package com.bankAccount.bankAccount.controllers;
 
 import com.bankAccount.bankAccount.config.TestSecurityConfig;
 import com.bankAccount.bankAccount.controllers.user.UserController;
+import com.bankAccount.bankAccount.dto.user.UserDTO;
+import com.bankAccount.bankAccount.dto.user.UserImportErrorDTO;
+import com.bankAccount.bankAccount.dto.user.UserImportResultDTO;
 import com.bankAccount.bankAccount.dto.user.UserResponseDTO;
 import com.bankAccount.bankAccount.entities.User;
 import com.bankAccount.bankAccount.services.auth.CustomUserDetailsService;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
 import com.bankAccount.bankAccount.config.JwtUtil;
+import com.bankAccount.bankAccount.services.user.UserImportService;
 import com.bankAccount.bankAccount.services.user.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
@@ -13,13 +18,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,9 +49,15 @@ class UserControllerTest {
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockitoBean
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private UserImportService userImportService;
+
     @MockitoBean
     private PasswordEncoder passwordEncoder;
 
@@ -48,13 +65,13 @@ class UserControllerTest {
     @Test
     void testGetAllUsers() throws Exception {
         // Arrange
-        List<User> mockUsers = List.of(
-                User.builder()
+        List<UserDTO> mockUsers = List.of(
+                UserDTO.builder()
                         .idUser(1L)
                         .name("John")
                         .email("john.doe@example.com")
                         .build(),
-                User.builder()
+                UserDTO.builder()
                         .idUser(2L)
                         .name("Jane")
                         .email("jane.smith@example.com")
@@ -62,7 +79,7 @@ class UserControllerTest {
         );
 
         // Simulamos la llamada al servicio
-        when(userService.getAllUsers()).thenReturn(mockUsers);
+        when(userService.getAllUsers(0L, 50)).thenReturn(mockUsers);
 
         // Act & Assert
         mockMvc.perform(get("/api/users")
@@ -78,6 +95,45 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].email").value("jane.smith@example.com"));
     }
 
+    @Test
+    void testGetAllUsersAfterIdClampsPageSize() throws Exception {
+        // Arrange
+        when(userService.getAllUsers(2L, 200)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users")
+                        .param("afterId", "2")
+                        .param("size", "5000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(0));
+
+        // El tamaño solicitado se limita al máximo configurado
+        verify(userService).getAllUsers(2L, 200);
+    }
+
+
+    @Test
+    void testImportUsers() throws Exception {
+        // Arrange
+        UserImportResultDTO result = UserImportResultDTO.builder()
+                .rowsRead(2)
+                .imported(1)
+                .failed(1)
+                .errors(List.of(new UserImportErrorDTO(3, "john.doe@example.com", "Email already in use")))
+                .build();
+        when(userImportService.importUsers(any())).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content("identificationNumber,name,email,password\n1,John,john.doe@example.com,secret\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Email already in use"));
+    }
 
     @Test
     void testRegisterUser() throws Exception {
@@ -108,13 +164,17 @@ class UserControllerTest {
                 .build();
 
         // Simulamos el comportamiento del servicio
-        when(userService.registerUser(savedUser)).thenReturn(responseDTO);
+        when(userService.registerUserAsync(savedUser)).thenReturn(CompletableFuture.completedFuture(responseDTO));
         when(passwordEncoder.encode(rawPassword)).thenReturn(hashedPassword);
 
-        // Act & Assert
-        mockMvc.perform(post("/api/users/register")
+        // Act & Assert: el registro es asíncrono, así que se espera el despacho del resultado
+        MvcResult result = mockMvc.perform(post("/api/users/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(new ObjectMapper().writeValueAsString(savedUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("User created successfully"))
@@ -125,6 +185,38 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data.email").value("steven.angel@example.com"));
     }
 
+    @Test
+    void testRegisterUserWhenHashingPoolIsFull() throws Exception {
+        // Arrange
+        User user = User.builder()
+                .identificationNumber("1.033.763.458")
+                .name("Steven Angel")
+                .email("steven.angel@example.com")
+                .password("securePassword123")
+                .build();
+
+        UserResponseDTO busy = UserResponseDTO.builder()
+                .message("Too many registrations in progress, try again later.")
+                .success(false)
+                .httpStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                .build();
+
+        when(userService.registerUserAsync(any())).thenReturn(CompletableFuture.completedFuture(busy));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
 
     @Test
     void testUpdateUser() throws Exception {
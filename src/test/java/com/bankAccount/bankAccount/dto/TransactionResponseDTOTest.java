@@ -16,7 +16,7 @@ class TransactionResponseDTOTest {
         TransactionResponseDTO dto = TransactionResponseDTO.builder()
                 .message("Transaction successful")
                 .success(true)
-                .amount(100.50)
+                .amount(10050L)
                 .date(currentDate)
                 .build();
 
@@ -25,7 +25,7 @@ class TransactionResponseDTOTest {
                 () -> assertNotNull(dto),
                 () -> assertEquals("Transaction successful", dto.getMessage()),
                 () -> assertTrue(dto.isSuccess()),
-                () -> assertEquals(100.50, dto.getAmount()),
+                () -> assertEquals(10050L, dto.getAmount()),
                 () -> assertEquals(currentDate, dto.getDate())
         );
     }
@@ -34,14 +34,14 @@ class TransactionResponseDTOTest {
     public void testTransactionResponseDTOConstructor() {
         // Crear el DTO usando el constructor
         LocalDateTime currentDate = LocalDateTime.now();
-        TransactionResponseDTO dto = new TransactionResponseDTO("Transaction successful", true, 100.50, currentDate, HttpStatus.OK);
+        TransactionResponseDTO dto = new TransactionResponseDTO("Transaction successful", true, 10050L, currentDate, HttpStatus.OK);
 
         // Verificar que los valores se asignaron correctamente
         assertAll("Verify TransactionResponseDTO constructor properties",
                 () -> assertNotNull(dto),
                 () -> assertEquals("Transaction successful", dto.getMessage()),
                 () -> assertTrue(dto.isSuccess()),
-                () -> assertEquals(100.50, dto.getAmount()),
+                () -> assertEquals(10050L, dto.getAmount()),
                 () -> assertEquals(currentDate, dto.getDate())
         );
     }
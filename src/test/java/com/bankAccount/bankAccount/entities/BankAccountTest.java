@@ -10,13 +10,13 @@ class BankAccountTest {
         User user = new User();
         user.setIdUser(1L);
 
-        BankAccount bankAccount = new BankAccount(1L, "ACC12345", 1000.00, "Savings", user);
+        BankAccount bankAccount = new BankAccount(1L, "ACC12345", 100000L, "Savings", user);
 
         assertAll("Verify BankAccount constructor properties",
                 () -> assertNotNull(bankAccount),
                 () -> assertEquals(1L, bankAccount.getIdAccount()),
                 () -> assertEquals("ACC12345", bankAccount.getNumberAccount()),
-                () -> assertEquals(1000.00, bankAccount.getBalance()),
+                () -> assertEquals(100000L, bankAccount.getBalance()),
                 () -> assertEquals("Savings", bankAccount.getType()),
                 () -> assertEquals(1L, bankAccount.getUser().getIdUser())
         );
@@ -30,14 +30,14 @@ class BankAccountTest {
         BankAccount bankAccount = new BankAccount();
         bankAccount.setIdAccount(1L);
         bankAccount.setNumberAccount("ACC67890");
-        bankAccount.setBalance(500.00);
+        bankAccount.setBalance(50000L);
         bankAccount.setType("Checking");
         bankAccount.setUser(user);
 
         assertAll("Verify BankAccount setters and getters",
                 () -> assertEquals(1L, bankAccount.getIdAccount()),
                 () -> assertEquals("ACC67890", bankAccount.getNumberAccount()),
-                () -> assertEquals(500.00, bankAccount.getBalance()),
+                () -> assertEquals(50000L, bankAccount.getBalance()),
                 () -> assertEquals("Checking", bankAccount.getType()),
                 () -> assertEquals(1L, bankAccount.getUser().getIdUser())
         );
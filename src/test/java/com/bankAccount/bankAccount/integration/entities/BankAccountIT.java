@@ -34,7 +34,7 @@ class BankAccountIT {
         // Crear un objeto BankAccount
         BankAccount bankAccount = BankAccount.builder()
                 .numberAccount("ACC123456789")
-                .balance(1000.00)
+                .balance(100000L)
                 .type("Savings")
                 .user(user) // Asociar al usuario creado
                 .build();
@@ -45,7 +45,7 @@ class BankAccountIT {
         // Verificar que el objeto BankAccount se haya guardado correctamente
         assertNotNull(bankAccount);
         assertEquals("ACC123456789", bankAccount.getNumberAccount());
-        assertEquals(1000.00, bankAccount.getBalance());
+        assertEquals(100000L, bankAccount.getBalance());
         assertEquals("Savings", bankAccount.getType());
         assertEquals(user.getIdUser(), bankAccount.getUser().getIdUser()); // Verificar relación con el usuario
     }
@@ -55,7 +55,7 @@ class BankAccountIT {
         // Crear un objeto BankAccount sin usuario
         BankAccount bankAccount = BankAccount.builder()
                 .numberAccount("ACC987654321")
-                .balance(500.00)
+                .balance(50000L)
                 .type("Checking")
                 .build();
 
@@ -65,7 +65,7 @@ class BankAccountIT {
         // Verificar que el objeto BankAccount se haya guardado correctamente
         assertNotNull(bankAccount);
         assertEquals("ACC987654321", bankAccount.getNumberAccount());
-        assertEquals(500.00, bankAccount.getBalance());
+        assertEquals(50000L, bankAccount.getBalance());
         assertNull(bankAccount.getUser()); // No debe haber un usuario asociado
     }
 }
\ No newline at end of file
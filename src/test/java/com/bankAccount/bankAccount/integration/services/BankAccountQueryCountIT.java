@@ -0,0 +1,168 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class BankAccountQueryCountIT {
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private BankAccount first;
+    private BankAccount second;
+
+    @BeforeEach
+    public void setUp() {
+        // Cada prueba usa datos propios para que los conteos no dependan del orden de ejecución
+        String suffix = UUID.randomUUID().toString();
+        user = userRepository.save(User.builder()
+                .identificationNumber("QC-" + suffix)
+                .name("Query Count")
+                .email(suffix + "@example.com")
+                .password("securePassword123")
+                .build());
+        first = bankAccountRepository.save(BankAccount.builder().numberAccount("QC-A-" + suffix).balance(100000L).type("Savings").user(user).build());
+        second = bankAccountRepository.save(BankAccount.builder().numberAccount("QC-B-" + suffix).balance(100000L).type("Checking").user(user).build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testGetAllAccountsByUser() {
+        // Act
+        assertEquals(2, bankAccountService.getAllAccountsByUser(user.getIdUser(), 0, 50).size());
+
+        // Assert
+        assertStatements(1);
+    }
+
+    @Test
+    public void testGetBalanceByAccount() {
+        // Act
+        assertTrue(bankAccountService.getBalanceByAccount(first.getIdAccount()).isSuccess());
+
+        // Assert
+        assertStatements(1);
+    }
+
+    @Test
+    public void testDepositMoney() {
+        // Act
+        assertTrue(bankAccountService.depositMoney(first.getIdAccount(), 1000L).isSuccess());
+
+        // Assert: UPDATE del saldo y lectura de la cuenta
+        assertStatements(2);
+    }
+
+    @Test
+    public void testWithdrawMoney() {
+        // Act
+        assertTrue(bankAccountService.withdrawMoney(first.getIdAccount(), 1000L).isSuccess());
+
+        // Assert: UPDATE condicional del saldo y lectura de la cuenta
+        assertStatements(2);
+    }
+
+    @Test
+    public void testTransferMoney() {
+        // Act
+        assertTrue(bankAccountService.transferMoney(first.getIdAccount(), second.getIdAccount(), 1000L).isSuccess());
+
+        // Assert: dos SELECT ... FOR UPDATE; los dos UPDATE al confirmar van en un solo lote JDBC
+        // (hibernate.jdbc.batch_size y order_updates), así que se prepara una sola sentencia para ambos
+        assertStatements(3);
+    }
+
+    @Test
+    public void testUpdateAccount() {
+        // Act
+        BankAccount changes = BankAccount.builder().numberAccount(first.getNumberAccount()).type("Checking").build();
+        assertTrue(bankAccountService.updateAccount(first.getIdAccount(), changes).isSuccess());
+
+        // Assert: lectura, merge de la entidad separada y UPDATE
+        assertStatements(3);
+    }
+
+    @Test
+    public void testDeleteAccount() {
+        // Act
+        assertTrue(bankAccountService.deleteAccount(second.getIdAccount()).isSuccess());
+
+        // Assert: lectura, lectura de deleteById y DELETE
+        assertStatements(3);
+    }
+
+    @Test
+    public void testCreateAccountsUsesJdbcBatches() {
+        // Arrange
+        List<BankAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            accounts.add(BankAccount.builder().numberAccount("QC-BULK-" + i + "-" + user.getIdUser()).balance(0L).type("Savings").build());
+        }
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.createAccounts(user.getIdUser(), accounts);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(120, ((List<?>) response.getData()).size());
+        assertEquals(122, bankAccountService.getAllAccountsByUser(user.getIdUser(), 0, 200).size());
+
+        // Sin lotes serían al menos 120 INSERT; con lotes de 50 y la secuencia pooled son unas pocas sentencias
+        assertTrue(statistics.getPrepareStatementCount() < 15, "Inserts were not batched: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindWithUserLoadsUserInSameStatement() {
+        // Act
+        BankAccount account = bankAccountRepository.findWithUserByIdAccount(first.getIdAccount()).orElseThrow();
+
+        // Assert
+        assertEquals(user.getEmail(), account.getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Ninguna operación de saldo debe cargar el usuario de la cuenta
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected SQL statement count");
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount(), "User should not be loaded");
+    }
+}
@@ -0,0 +1,95 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.repository.IdempotencyRecordRepository;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import com.bankAccount.bankAccount.services.idempotency.IdempotencyService;
+import com.bankAccount.bankAccount.services.idempotency.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class IdempotencyIT {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testRetryAfterFailureAppliesTheMovementOnce() {
+        // Arrange
+        BankAccount account = save(10_000L);
+        BankAccount full = save(Long.MAX_VALUE - 10);
+        String key = "1:" + UUID.randomUUID();
+
+        // Act: el primer intento deposita y luego falla con un 500 al desbordar la cuenta de destino
+        String failed = idempotencyService.execute(key, "hash", () -> {
+            bankAccountService.depositMoney(account.getIdAccount(), 500L);
+            return bankAccountService.transferMoney(account.getIdAccount(), full.getIdAccount(), 100L);
+        });
+        String retry = idempotencyService.execute(key, "hash",
+                () -> bankAccountService.depositMoney(account.getIdAccount(), 500L));
+
+        // Assert: el depósito del intento fallido se revirtió y el reintento lo aplicó una sola vez
+        assertTrue(failed.contains("INTERNAL_SERVER_ERROR"));
+        assertTrue(retry.contains("\"success\":true"));
+        assertEquals(10_500L, bankAccountRepository.findById(account.getIdAccount()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testReplayFromTheTableIsByteForByte() {
+        // Arrange
+        BankAccount account = save(10_000L);
+        String key = "1:" + UUID.randomUUID();
+        String original = idempotencyService.execute(key, "hash",
+                () -> bankAccountService.depositMoney(account.getIdAccount(), 500L));
+
+        // Una instancia nueva no tiene la respuesta en memoria y la lee de la tabla, como tras un reinicio
+        IdempotencyService restarted = new IdempotencyServiceImpl(idempotencyRecordRepository, objectMapper, transactionManager, 1000, Duration.ofHours(24));
+
+        // Act
+        String replayed = restarted.execute(key, "hash", () -> {
+            throw new AssertionError("La operación no debe ejecutarse de nuevo");
+        });
+
+        // Assert
+        assertEquals(original, replayed);
+        assertEquals(10_500L, bankAccountRepository.findById(account.getIdAccount()).orElseThrow().getBalance());
+    }
+
+    private BankAccount save(long balance) {
+        return bankAccountRepository.save(BankAccount.builder()
+                .numberAccount("IDEM-" + UUID.randomUUID())
+                .balance(balance)
+                .type("Savings")
+                .build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.config.JwtPrincipal;
+import com.bankAccount.bankAccount.config.JwtUtil;
+import com.bankAccount.bankAccount.dto.auth.AuthRequestDTO;
+import com.bankAccount.bankAccount.dto.auth.AuthResponseDTO;
+import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.auth.AuthService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cuenta las consultas de /api/auth/login sin caches: debe ser una lectura por email y un chequeo BCrypt
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loginquerycount;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "bank.auth.user-cache.enabled=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class LoginQueryCountIT {
+
+    private static final String PASSWORD = "securePassword123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        user = userRepository.save(User.builder()
+                .identificationNumber("LQ-" + suffix)
+                .name("Login Query Count")
+                .email(suffix + "@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testLoginRunsOneQuery() {
+        // Act
+        AuthResponseDTO response = authService.authenticate(request(user.getEmail(), PASSWORD));
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Unexpected SQL statement count");
+
+        // El id del token sale del principal, sin una segunda búsqueda por email
+        JwtPrincipal principal = jwtUtil.decode(response.getToken()).orElseThrow();
+        assertEquals(user.getIdUser(), principal.id());
+        assertEquals(user.getEmail(), principal.email());
+    }
+
+    @Test
+    public void testRepeatedLoginsScaleLinearly() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertTrue(authService.authenticate(request(user.getEmail(), PASSWORD)).isSuccess());
+        }
+
+        // Assert
+        assertEquals(5, statistics.getPrepareStatementCount(), "Unexpected SQL statement count");
+    }
+
+    @Test
+    public void testWrongPasswordRunsOneQuery() {
+        // Act
+        AuthResponseDTO response = authService.authenticate(request(user.getEmail(), "wrongPassword"));
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertNull(response.getToken());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Unexpected SQL statement count");
+    }
+
+    private static AuthRequestDTO request(String email, String password) {
+        AuthRequestDTO request = new AuthRequestDTO();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:movementrollback;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class MovementRollbackIT {
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @MockitoSpyBean
+    private TransactionRecorder transactionRecorder;
+
+    @Test
+    public void testDepositFailingAfterTheUpdateIsRolledBack() {
+        // Arrange: el registro del movimiento falla después de aplicar el UPDATE
+        BankAccount account = save(10_000L);
+        doThrow(new IllegalStateException("Recorder unavailable")).when(transactionRecorder).record(any());
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.depositMoney(account.getIdAccount(), 500L);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getHttpStatus());
+        assertEquals(10_000L, bankAccountRepository.findById(account.getIdAccount()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testWithdrawalFailingAfterTheUpdateIsRolledBack() {
+        // Arrange
+        BankAccount account = save(10_000L);
+        doThrow(new IllegalStateException("Recorder unavailable")).when(transactionRecorder).record(any());
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.withdrawMoney(account.getIdAccount(), 500L);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getHttpStatus());
+        assertEquals(10_000L, bankAccountRepository.findById(account.getIdAccount()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testTransferFailingAfterTheDebitIsRolledBack() {
+        // Arrange: el crédito desborda el saldo de destino después de haber debitado el origen
+        BankAccount source = save(10_000L);
+        BankAccount destination = save(Long.MAX_VALUE - 10);
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.transferMoney(source.getIdAccount(), destination.getIdAccount(), 500L);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getHttpStatus());
+        assertEquals(10_000L, bankAccountRepository.findById(source.getIdAccount()).orElseThrow().getBalance());
+        assertEquals(Long.MAX_VALUE - 10, bankAccountRepository.findById(destination.getIdAccount()).orElseThrow().getBalance());
+    }
+
+    private BankAccount save(long balance) {
+        return bankAccountRepository.save(BankAccount.builder()
+                .numberAccount("RB-" + UUID.randomUUID())
+                .balance(balance)
+                .type("Savings")
+                .build());
+    }
+}
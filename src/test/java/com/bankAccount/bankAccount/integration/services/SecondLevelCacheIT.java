@@ -0,0 +1,191 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import com.bankAccount.bankAccount.utils.money.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:secondlevelcache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class SecondLevelCacheIT {
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private BankAccount account;
+
+    @BeforeEach
+    public void setUp() {
+        account = bankAccountRepository.save(BankAccount.builder()
+                .numberAccount("L2-" + UUID.randomUUID())
+                .balance(100000L)
+                .type("Savings")
+                .build());
+
+        // Se parte de una cache vacía para que los aciertos medidos sean solo los de la prueba
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testBalanceIsServedFromCache() {
+        // Act
+        bankAccountService.getBalanceByAccount(account.getIdAccount());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        Object balance = bankAccountService.getBalanceByAccount(account.getIdAccount()).getData();
+
+        // Assert
+        assertEquals(Money.toDecimal(100000L), balance);
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("accounts").getHitCount());
+    }
+
+    @Test
+    public void testDepositInvalidatesCachedBalance() {
+        // Arrange
+        bankAccountService.getBalanceByAccount(account.getIdAccount());
+
+        // Act
+        bankAccountService.depositMoney(account.getIdAccount(), 2500L);
+        Object balance = bankAccountService.getBalanceByAccount(account.getIdAccount()).getData();
+
+        // Assert
+        assertEquals(Money.toDecimal(102500L), balance);
+    }
+
+    @Test
+    public void testReadDuringInFlightDepositIsNotCached() throws Exception {
+        // Arrange: el depósito queda aplicado pero sin confirmar hasta que se libera el latch
+        CountDownLatch applied = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> deposit = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                bankAccountService.depositMoney(account.getIdAccount(), 2500L);
+                applied.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(applied.await(10, TimeUnit.SECONDS));
+
+            // Act: una lectura concurrente carga la fila anterior al commit
+            Object duringDeposit = bankAccountService.getBalanceByAccount(account.getIdAccount()).getData();
+            release.countDown();
+            deposit.get(10, TimeUnit.SECONDS);
+            long putsBeforeCommitRead = statistics.getDomainDataRegionStatistics("accounts").getPutCount();
+            Object afterCommit = bankAccountService.getBalanceByAccount(account.getIdAccount()).getData();
+
+            // Assert: el bloqueo suave impide que la lectura intermedia deje el saldo anterior en la cache
+            assertEquals(Money.toDecimal(100000L), duringDeposit);
+            assertEquals(0, putsBeforeCommitRead);
+            assertEquals(Money.toDecimal(102500L), afterCommit);
+            assertEquals(Money.toDecimal(102500L), bankAccountService.getBalanceByAccount(account.getIdAccount()).getData());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDepositKeepsOtherAccountsCached() {
+        // Arrange
+        BankAccount other = bankAccountRepository.save(BankAccount.builder()
+                .numberAccount("L2-" + UUID.randomUUID())
+                .balance(5000L)
+                .type("Checking")
+                .build());
+        bankAccountService.getBalanceByAccount(other.getIdAccount());
+        bankAccountService.getBalanceByAccount(account.getIdAccount());
+        statistics.clear();
+
+        // Act
+        bankAccountService.depositMoney(account.getIdAccount(), 2500L);
+        Object otherBalance = bankAccountService.getBalanceByAccount(other.getIdAccount()).getData();
+
+        // Assert: el depósito solo expulsa su propia cuenta, la otra se sigue leyendo de la cache
+        assertEquals(Money.toDecimal(5000L), otherBalance);
+        assertEquals(1, statistics.getDomainDataRegionStatistics("accounts").getHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(BankAccount.class, other.getIdAccount()));
+    }
+
+    @Test
+    public void testBatchInvalidatesCachedBalance() {
+        // Arrange
+        bankAccountService.getBalanceByAccount(account.getIdAccount());
+
+        // Act
+        bankAccountService.applyBatch(List.of(
+                new BatchOperationDTO(account.getIdAccount(), BatchOperationDTO.Operation.WITHDRAW, 40000L)
+        ));
+        Object balance = bankAccountService.getBalanceByAccount(account.getIdAccount()).getData();
+
+        // Assert
+        assertEquals(Money.toDecimal(60000L), balance);
+    }
+
+    @Test
+    public void testFindByEmailUsesQueryCache() {
+        // Arrange
+        String email = UUID.randomUUID() + "@example.com";
+        userRepository.save(User.builder()
+                .identificationNumber("L2-" + email)
+                .name("Cached User")
+                .email(email)
+                .password("securePassword123")
+                .build());
+        statistics.clear();
+
+        // Act
+        userRepository.findByEmail(email).orElseThrow();
+        userRepository.findByEmail(email).orElseThrow();
+
+        // Assert: la segunda búsqueda no llega a la base de datos
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
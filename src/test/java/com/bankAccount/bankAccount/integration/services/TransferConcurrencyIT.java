@@ -0,0 +1,124 @@
+package com.bankAccount.bankAccount.integration.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfers;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "bank.transactions.store=memory",
+        "bank.engine.enabled=false"
+})
+class TransferConcurrencyIT {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 250;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    public void testOppositeTransfersDoNotDeadlock() throws Exception {
+        // Arrange
+        BankAccount first = bankAccountRepository.save(BankAccount.builder().numberAccount("TRF-A").balance(1_000_000L).type("Savings").build());
+        BankAccount second = bankAccountRepository.save(BankAccount.builder().numberAccount("TRF-B").balance(1_000_000L).type("Savings").build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+
+        // La mitad de los hilos transfiere de A a B y la otra mitad de B a A
+        for (int t = 0; t < THREADS; t++) {
+            long fromId = t % 2 == 0 ? first.getIdAccount() : second.getIdAccount();
+            long toId = t % 2 == 0 ? second.getIdAccount() : first.getIdAccount();
+
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    BankAccountResponseDTO response = bankAccountService.transferMoney(fromId, toId, 100L);
+                    if (response.isSuccess()) succeeded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, succeeded.get());
+
+        // El dinero total se conserva y, al ser transferencias simétricas, cada saldo vuelve al inicial
+        long firstBalance = bankAccountRepository.findById(first.getIdAccount()).orElseThrow().getBalance();
+        long secondBalance = bankAccountRepository.findById(second.getIdAccount()).orElseThrow().getBalance();
+        assertEquals(2_000_000L, firstBalance + secondBalance);
+        assertEquals(1_000_000L, firstBalance);
+    }
+
+    @Test
+    public void testConcurrentTransfersNeverOverdraw() throws Exception {
+        // Arrange: saldos pequeños para que muchas transferencias fallen por fondos insuficientes
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(bankAccountRepository.save(BankAccount.builder().numberAccount("TRF-R" + i).balance(1_000L).type("Savings").build()).getIdAccount());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Cada hilo mueve dinero en anillo entre las tres cuentas, en un sentido u otro según el hilo
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = (offset + i) % 3;
+                    int to = offset % 2 == 0 ? (from + 1) % 3 : (from + 2) % 3;
+                    bankAccountService.transferMoney(ids.get(from), ids.get(to), 300L);
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert: el total se conserva y ninguna cuenta queda en negativo
+        long total = 0;
+        for (long id : ids) {
+            long balance = bankAccountRepository.findById(id).orElseThrow().getBalance();
+            assertTrue(balance >= 0, "Negative balance for account " + id + ": " + balance);
+            total += balance;
+        }
+        assertEquals(3_000L, total);
+    }
+}
@@ -0,0 +1,279 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
+import com.bankAccount.bankAccount.entities.BankAccount;
+import com.bankAccount.bankAccount.repository.BankAccountRepository;
+import com.bankAccount.bankAccount.services.bankAccount.AccountCacheLocks;
+import com.bankAccount.bankAccount.services.bankAccount.AccountShardEngine;
+import com.bankAccount.bankAccount.services.bankAccount.BankAccountService;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
+import com.bankAccount.bankAccount.utils.ResponseHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountShardEngineTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BankAccountService bankAccountService;
+
+    @Mock
+    private TransactionRecorder transactionRecorder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountCacheLocks accountCacheLocks;
+
+    private AccountShardEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new AccountShardEngine(bankAccountRepository, bankAccountService, transactionRecorder, new ResponseHandler(), transactionManager, accountCacheLocks, 4, 100_000, 500, 5_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    public void testConcurrentDepositsAreAllApplied() throws Exception {
+        // Arrange
+        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(new BankAccount(1L, "123456", 100000L, "CHECKING", null)));
+        when(bankAccountRepository.applyDelta(eq(1L), anyLong())).thenReturn(1);
+
+        // Act
+        List<CompletableFuture<BankAccountResponseDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            results.add(engine.deposit(1L, 100L));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(results.stream().allMatch(result -> result.join().isSuccess()));
+
+        // La cuenta se carga una sola vez y los depósitos se persisten en lotes
+        verify(bankAccountRepository, times(1)).findById(1L);
+        ArgumentCaptor<Long> deltas = ArgumentCaptor.forClass(Long.class);
+        verify(bankAccountRepository, atMost(10_000)).applyDelta(eq(1L), deltas.capture());
+        assertEquals(1_000_000L, deltas.getAllValues().stream().mapToLong(Long::longValue).sum());
+        verify(transactionRecorder, times(10_000)).record(argThat(transaction -> transaction.amount() == 100L));
+
+        // Cada lote bloquea en la cache solo la cuenta que modificó
+        verify(accountCacheLocks, atLeastOnce()).lock(Set.of(1L));
+        verifyNoMoreInteractions(accountCacheLocks);
+    }
+
+    @Test
+    public void testWithdrawInsufficientFunds() {
+        // Arrange
+        when(bankAccountRepository.findById(2L)).thenReturn(Optional.of(new BankAccount(2L, "654321", 5000L, "SAVINGS", null)));
+
+        // Act
+        BankAccountResponseDTO response = engine.withdraw(2L, 10000L).join();
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals("Insufficient funds.", response.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getHttpStatus());
+        verify(bankAccountRepository, never()).applyDelta(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testAccountNotFound() {
+        // Arrange
+        when(bankAccountRepository.findById(3L)).thenReturn(Optional.empty());
+
+        // Act
+        BankAccountResponseDTO response = engine.deposit(3L, 100L).join();
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals(HttpStatus.NOT_FOUND, response.getHttpStatus());
+    }
+
+    @Test
+    public void testTransferRunsInOneTransactionAndReloadsBothAccounts() {
+        // Arrange
+        when(bankAccountRepository.findById(4L))
+                .thenReturn(Optional.of(new BankAccount(4L, "111111", 50000L, "SAVINGS", null)))
+                .thenReturn(Optional.of(new BankAccount(4L, "111111", 30000L, "SAVINGS", null)));
+        when(bankAccountRepository.applyDelta(eq(4L), anyLong())).thenReturn(1);
+        when(bankAccountService.transferMoney(4L, 5L, 20000L))
+                .thenReturn(new ResponseHandler().buildSuccessAccount("Transaction type: transfer. Amount: 200.00", null));
+
+        // La cuenta origen queda en la cache del shard antes de la transferencia
+        assertTrue(engine.deposit(4L, 100L).join().isSuccess());
+
+        // Act
+        BankAccountResponseDTO response = engine.transfer(4L, 5L, 20000L);
+        BankAccountResponseDTO next = engine.deposit(4L, 100L).join();
+
+        // Assert: ambas patas van en la transacción del servicio, no como dos operaciones de shard
+        assertTrue(response.isSuccess());
+        verify(bankAccountService).transferMoney(4L, 5L, 20000L);
+
+        // El shard descarta su copia y lee el saldo que dejó la transferencia
+        verify(bankAccountRepository, times(2)).findById(4L);
+        assertTrue(next.getMessage().endsWith("Current Balance: 301.00"));
+    }
+
+    @Test
+    public void testDepositDuringTransferReloadsTheAccount() {
+        // Arrange: la cuenta queda en la cache del shard y la transferencia confirma un saldo nuevo
+        when(bankAccountRepository.findById(5L))
+                .thenReturn(Optional.of(new BankAccount(5L, "444444", 50000L, "SAVINGS", null)))
+                .thenReturn(Optional.of(new BankAccount(5L, "444444", 30000L, "SAVINGS", null)));
+        when(bankAccountRepository.applyDelta(eq(5L), anyLong())).thenReturn(1);
+        List<BankAccountResponseDTO> during = new ArrayList<>();
+        when(bankAccountService.transferMoney(5L, 4L, 20000L)).thenAnswer(invocation -> {
+            // Un depósito que llega mientras la transferencia está en curso
+            during.add(engine.deposit(5L, 100L).join());
+            return new ResponseHandler().buildSuccessAccount("Transaction type: transfer. Amount: 200.00", null);
+        });
+
+        assertTrue(engine.deposit(5L, 100L).join().isSuccess());
+
+        // Act
+        engine.transfer(5L, 4L, 20000L);
+
+        // Assert: la cuenta se marcó antes de delegar, así que el shard no reutiliza el saldo anterior
+        verify(bankAccountRepository, times(2)).findById(5L);
+        assertTrue(during.get(0).getMessage().endsWith("Current Balance: 301.00"));
+    }
+
+    @Test
+    public void testQueuedCommandExpiresWithoutBeingApplied() throws Exception {
+        // Arrange: un motor de un shard con vencimiento corto y el hilo del shard retenido en la primera carga
+        engine.stop();
+        engine = new AccountShardEngine(bankAccountRepository, bankAccountService, transactionRecorder, new ResponseHandler(), transactionManager, accountCacheLocks, 1, 100, 500, 50);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bankAccountRepository.findById(9L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(new BankAccount(9L, "555555", 10000L, "SAVINGS", null));
+        });
+        when(bankAccountRepository.applyDelta(9L, 100L)).thenReturn(1);
+
+        CompletableFuture<BankAccountResponseDTO> first = engine.deposit(9L, 100L);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Act
+        BankAccountResponseDTO queued = engine.deposit(9L, 200L).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert: el que venció en cola responde 503 y nunca se aplica
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, queued.getHttpStatus());
+        assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+        engine.stop();
+        verify(bankAccountRepository, never()).applyDelta(9L, 200L);
+    }
+
+    @Test
+    public void testStoppedEngineAnswersInsteadOfQueueing() throws Exception {
+        // Arrange
+        engine.stop();
+
+        // Act
+        BankAccountResponseDTO response = engine.deposit(10L, 100L).get(5, TimeUnit.SECONDS);
+
+        // Assert: un motor detenido no deja futuros pendientes
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getHttpStatus());
+        verifyNoInteractions(bankAccountRepository);
+    }
+
+    @Test
+    public void testRejectedDeltaEvictsCachedAccountAndFails() {
+        // Arrange: la cuenta se cachea con 500.00 pero otro escritor la dejó en 0
+        when(bankAccountRepository.findById(6L))
+                .thenReturn(Optional.of(new BankAccount(6L, "222222", 50000L, "SAVINGS", null)))
+                .thenReturn(Optional.of(new BankAccount(6L, "222222", 0L, "SAVINGS", null)));
+        when(bankAccountRepository.applyDelta(6L, -100L)).thenReturn(0);
+        when(bankAccountRepository.findExistingIds(Set.of(6L))).thenReturn(List.of(6L));
+
+        // Act
+        BankAccountResponseDTO conflict = engine.withdraw(6L, 100L).join();
+        BankAccountResponseDTO retry = engine.withdraw(6L, 100L).join();
+
+        // Assert: el retiro falla con conflicto y el reintento usa el saldo recargado
+        assertFalse(conflict.isSuccess());
+        assertEquals(HttpStatus.CONFLICT, conflict.getHttpStatus());
+        assertEquals("Insufficient funds.", retry.getMessage());
+        verify(bankAccountRepository, times(2)).findById(6L);
+        verify(transactionRecorder, never()).record(any());
+    }
+
+    @Test
+    public void testBatchRunsThroughJdbcPathAndReloadsAccounts() {
+        // Arrange
+        when(bankAccountRepository.findById(7L))
+                .thenReturn(Optional.of(new BankAccount(7L, "333333", 10000L, "SAVINGS", null)))
+                .thenReturn(Optional.of(new BankAccount(7L, "333333", 15000L, "SAVINGS", null)));
+        when(bankAccountRepository.applyDelta(eq(7L), anyLong())).thenReturn(1);
+        List<BatchOperationDTO> operations = List.of(new BatchOperationDTO(7L, BatchOperationDTO.Operation.DEPOSIT, 5000L));
+        List<BatchResultDTO> results = List.of(BatchResultDTO.builder().accountId(7L).success(true).httpStatus(HttpStatus.OK).build());
+        when(bankAccountService.applyBatch(operations)).thenReturn(results);
+
+        assertTrue(engine.deposit(7L, 100L).join().isSuccess());
+
+        // Act
+        List<BatchResultDTO> response = engine.applyBatch(operations);
+        BankAccountResponseDTO next = engine.deposit(7L, 100L).join();
+
+        // Assert: el lote no pasa por las colas de los shards y la cuenta se recarga después
+        assertSame(results, response);
+        verify(bankAccountService).applyBatch(operations);
+        verify(bankAccountRepository, times(2)).findById(7L);
+        assertTrue(next.getMessage().endsWith("Current Balance: 151.00"));
+    }
+
+    @Test
+    public void testDepositInsideCallerTransactionRunsOnCallingThread() {
+        // Arrange: el llamador ya tiene una transacción abierta (petición idempotente)
+        BankAccountResponseDTO deposited = new ResponseHandler().buildSuccessAccount("Transaction type: SAVINGS. Amount: 1.00", null);
+        when(bankAccountService.depositMoney(8L, 100L)).thenReturn(deposited);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        try {
+            // Act
+            BankAccountResponseDTO response = engine.deposit(8L, 100L).join();
+
+            // Assert: el depósito va en la transacción del llamador, no en la cola del shard
+            assertSame(deposited, response);
+            verify(bankAccountService).depositMoney(8L, 100L);
+            verifyNoInteractions(bankAccountRepository);
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,25 +1,43 @@
 package com.bankAccount.bankAccount.services;
 
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
 import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchOperationDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BatchResultDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
 import com.bankAccount.bankAccount.entities.BankAccount;
 import com.bankAccount.bankAccount.entities.User;
 import com.bankAccount.bankAccount.repository.BankAccountRepository;
 import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.bankAccount.AccountCacheLocks;
 import com.bankAccount.bankAccount.services.bankAccount.BankAccountServiceImpl;
-import com.bankAccount.bankAccount.services.transaction.TransactionService;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
 import com.bankAccount.bankAccount.utils.ResponseHandler;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,11 +55,20 @@ class BankAccountServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private TransactionService transactionService;
+    private TransactionRecorder transactionRecorder;
 
     @Mock
     private ResponseHandler responseHandler;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AccountCacheLocks accountCacheLocks;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private BankAccountServiceImpl bankAccountService;
 
@@ -50,8 +77,8 @@ class BankAccountServiceImplTest {
     @BeforeEach
     public void setUp() {
         // Se crea una cuenta para las pruebas
-        User user = new User(1L, "123456789", "John Doe", "john.doe@example.com", "securePassword123");
-        account = new BankAccount(1L, "123456", 1000.00, "SAVINGS", user);
+        User user = new User(1L, "123456789", "John Doe", "john.doe@example.com", "securePassword123", 0);
+        account = new BankAccount(1L, "123456", 100000L, "SAVINGS", user);
     }
 
     /* getAllAccountsByUser */
@@ -59,31 +86,31 @@ class BankAccountServiceImplTest {
     @Test
     void testGetAllAccountsByUser_Success() {
         // Configuración del mock
-        User user = new User(1L, "123456", "John Doe", "john.doe@example.com", "securePassword123");
-        BankAccount account1 = new BankAccount(1L, "12345", 1000.0, "Savings", user);
-        BankAccount account2 = new BankAccount(2L, "67890", 500.0, "Checking", user);
-        List<BankAccount> accounts = Arrays.asList(account1, account2);
+        BankAccountDTO account1 = new BankAccountDTO(1L, "12345", 100000L, "Savings");
+        BankAccountDTO account2 = new BankAccountDTO(2L, "67890", 50000L, "Checking");
+        Slice<BankAccountDTO> accounts = new SliceImpl<>(Arrays.asList(account1, account2), PageRequest.of(0, 50), false);
 
-        when(bankAccountRepository.findAll()).thenReturn(accounts);
+        when(bankAccountRepository.findAccountsByUser(1L, PageRequest.of(0, 50))).thenReturn(accounts);
 
         // Llamada al método
-        List<BankAccount> result = bankAccountService.getAllAccountsByUser(1L);
+        List<BankAccountDTO> result = bankAccountService.getAllAccountsByUser(1L, 0, 50);
 
         // Verificación del resultado
         assertNotNull(result);
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(account -> "12345".equals(account.getNumberAccount())));
         assertTrue(result.stream().anyMatch(account -> "67890".equals(account.getNumberAccount())));
+        verify(bankAccountRepository, never()).findAll();
     }
 
     /* getBalanceByAccount */
 
     @Test
     public void testGetBalanceByAccount_Success() {
-        User user = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123");
-        BankAccount account = new BankAccount(1L, "123456", 1000.00, "checking", user);
+        User user = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123", 0);
+        BankAccount account = new BankAccount(1L, "123456", 100000L, "checking", user);
 
-        BankAccountResponseDTO successResponse = new BankAccountResponseDTO("The balance for account : 123456 is: 1000.0", true, 1000.00, HttpStatus.OK);
+        BankAccountResponseDTO successResponse = new BankAccountResponseDTO("The balance for account : 123456 is: 1000.00", true, new BigDecimal("1000.00"), HttpStatus.OK);
 
         // Simulamos que la cuenta existe en el repositorio
         when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(account));
@@ -95,16 +122,16 @@ class BankAccountServiceImplTest {
         }).when(responseHandler).executeSafelyAccount(any());
 
         // Mock del responseHandler.buildSuccessBankAccount para devolver un BankAccountResponseDTO simulado
-        when(responseHandler.buildSuccessAccount("The balance for account : 123456 is: 1000.0", 1000.00))
+        when(responseHandler.buildSuccessAccount("The balance for account : 123456 is: 1000.00", new BigDecimal("1000.00")))
                 .thenReturn(successResponse);
 
         // Llamamos al método
         BankAccountResponseDTO response = bankAccountService.getBalanceByAccount(1L);
 
         // Validamos la respuesta
-        assertEquals("The balance for account : 123456 is: 1000.0", response.getMessage());
+        assertEquals("The balance for account : 123456 is: 1000.00", response.getMessage());
         assertTrue(response.isSuccess());
-        assertEquals(1000.00, response.getData());
+        assertEquals(new BigDecimal("1000.00"), response.getData());
     }
 
     @Test
@@ -137,8 +164,8 @@ class BankAccountServiceImplTest {
 
     @Test
     public void testCreateAccount_Success() {
-        User user = new User(1L, "123456789", "John Doe", "john.doe@example.com", "securePassword123");
-        BankAccount newAccount = new BankAccount(0L, "654321", 500.00, "CHECKING", user);
+        User user = new User(1L, "123456789", "John Doe", "john.doe@example.com", "securePassword123", 0);
+        BankAccount newAccount = new BankAccount(0L, "654321", 50000L, "CHECKING", user);
 
         // Simulamos que el usuario existe
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -173,7 +200,7 @@ class BankAccountServiceImplTest {
 
     @Test
     public void testCreateAccount_UserNotFound() {
-        BankAccount newAccount = new BankAccount(0L, "654321", 500.00, "CHECKING", null);
+        BankAccount newAccount = new BankAccount(0L, "654321", 50000L, "CHECKING", null);
 
         // Simulamos que el usuario no existe
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -202,13 +229,77 @@ class BankAccountServiceImplTest {
         assertEquals("User with ID: 1 not found.", response.getMessage());
     }
 
+    /* createAccounts */
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateAccounts_SavesInChunks() {
+        // Arrange
+        User user = new User(1L, "123456789", "John Doe", "john.doe@example.com", "securePassword123", 0);
+        List<BankAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            accounts.add(new BankAccount(0L, "SUB-" + i, 0L, "SAVINGS", null));
+        }
+        ReflectionTestUtils.setField(bankAccountService, "entityBatchSize", 2);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        // Simulamos la secuencia asignando IDs al guardar cada bloque
+        AtomicLong sequence = new AtomicLong(100L);
+        when(bankAccountRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<BankAccount> chunk = invocation.getArgument(0);
+            chunk.forEach(account -> account.setIdAccount(sequence.incrementAndGet()));
+            return chunk;
+        });
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get();
+        });
+        when(responseHandler.buildSuccessAccount(eq("5 accounts created successfully"), any()))
+                .thenAnswer(invocation -> new BankAccountResponseDTO(invocation.getArgument(0), true, invocation.getArgument(1), HttpStatus.OK));
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.createAccounts(1L, accounts);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(List.of(101L, 102L, 103L, 104L, 105L), response.getData());
+        assertTrue(accounts.stream().allMatch(account -> account.getUser() == user));
+
+        // Tres bloques (2 + 2 + 1), cada uno con su flush y su limpieza del contexto
+        verify(bankAccountRepository, times(3)).saveAll(anyList());
+        verify(bankAccountRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    public void testCreateAccounts_UserNotFound() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(false);
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get();
+        });
+        when(responseHandler.buildErrorAccount("User with ID: 1 not found.", HttpStatus.NOT_FOUND))
+                .thenReturn(new BankAccountResponseDTO("User with ID: 1 not found.", false, null, HttpStatus.NOT_FOUND));
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.createAccounts(1L, List.of(new BankAccount()));
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals(HttpStatus.NOT_FOUND, response.getHttpStatus());
+        verify(bankAccountRepository, never()).saveAll(anyList());
+    }
+
     /* updateAccount */
 
     @Test
     void testUpdateAccount_Success() {
         // Arrange
-        BankAccount existingAccount = new BankAccount(1L, "123456", 500.00, "CHECKING", null);
-        BankAccount updatedAccount = new BankAccount(1L, "654321", 600.00, "SAVINGS", null);
+        BankAccount existingAccount = new BankAccount(1L, "123456", 50000L, "CHECKING", null);
+        BankAccount updatedAccount = new BankAccount(1L, "654321", 60000L, "SAVINGS", null);
 
         // Simulamos que la cuenta existe
         when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
@@ -245,7 +336,7 @@ class BankAccountServiceImplTest {
     @Test
     void testUpdateAccount_NotFound() {
         // Arrange
-        BankAccount updatedAccount = new BankAccount(1L, "654321", 600.00, "SAVINGS", null);
+        BankAccount updatedAccount = new BankAccount(1L, "654321", 60000L, "SAVINGS", null);
 
         // Simulamos que la cuenta no existe
         when(bankAccountRepository.findById(1L)).thenReturn(Optional.empty());
@@ -279,7 +370,7 @@ class BankAccountServiceImplTest {
     @Test
     void testDeleteAccount_Success() {
         // Arrange
-        BankAccount existingAccount = new BankAccount(1L, "123456", 500.00, "CHECKING", null);
+        BankAccount existingAccount = new BankAccount(1L, "123456", 50000L, "CHECKING", null);
 
         // Simulamos que la cuenta existe
         when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
@@ -348,21 +439,18 @@ class BankAccountServiceImplTest {
     @Test
     public void testDepositMoney_Success() {
         // Arrange
-        BankAccount existingAccount = new BankAccount(1L, "123456", 1000.00, "CHECKING", null);
-        double depositAmount = 500.00;
+        BankAccount updatedAccount = new BankAccount(1L, "123456", 150000L, "CHECKING", null);
+        long depositAmount = 50000L;
 
-        // Simulamos que la cuenta existe
-        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
-
-        // Simulamos la actualización de la cuenta
-        when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(existingAccount);
+        // Simulamos que la actualización atómica afecta una fila
+        when(bankAccountRepository.depositBalance(1L, depositAmount)).thenReturn(1);
 
-        // Simulamos el servicio de transacciones
-        doNothing().when(transactionService).addTransaction(anyString(), eq(depositAmount));
+        // Simulamos la lectura del saldo actualizado
+        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(updatedAccount));
 
         // Simulamos la respuesta de éxito
         BankAccountResponseDTO successResponse = new BankAccountResponseDTO(
-                "Transaction type: CHECKING. Amount: 500.0 . Current Balance: 1500.0", true, existingAccount, HttpStatus.OK
+                "Transaction type: CHECKING. Amount: 500.00 . Current Balance: 1500.00", true, updatedAccount, HttpStatus.OK
         );
 
         // Simulamos el responseHandler para ejecutar el Supplier y devolver el resultado esperado
@@ -372,7 +460,8 @@ class BankAccountServiceImplTest {
         });
 
         // Simulamos la construcción de la respuesta de éxito
-        when(responseHandler.buildSuccessAccount(any(), any())).thenReturn(successResponse);
+        when(responseHandler.buildSuccessAccount("Transaction type: CHECKING. Amount: 500.00 . Current Balance: 1500.00", updatedAccount))
+                .thenReturn(successResponse);
 
         // Act
         BankAccountResponseDTO response = bankAccountService.depositMoney(1L, depositAmount);
@@ -380,15 +469,19 @@ class BankAccountServiceImplTest {
         // Assert
         assertNotNull(response);
         assertTrue(response.isSuccess());
-        assertEquals("Transaction type: CHECKING. Amount: 500.0 . Current Balance: 1500.0", response.getMessage());
-        verify(bankAccountRepository).save(existingAccount); // Verificamos que se haya guardado la cuenta
-        verify(transactionService).addTransaction(anyString(), eq(depositAmount));
+        assertEquals("Transaction type: CHECKING. Amount: 500.00 . Current Balance: 1500.00", response.getMessage());
+        verify(bankAccountRepository).depositBalance(1L, depositAmount); // Verificamos la actualización en una sola sentencia
+        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+        verify(transactionRecorder).record(argThat(transaction -> transaction.amount() == depositAmount));
+
+        // Solo la cuenta del depósito se bloquea en la cache de segundo nivel
+        verify(accountCacheLocks).lock(Set.of(1L));
     }
 
     @Test
     public void testDepositMoney_InvalidAmount() {
         // Arrange
-        double depositAmount = -500.00; // Monto inválido
+        long depositAmount = -50000L; // Monto inválido
 
         // Simulamos la respuesta de error directamente en el responseHandler
         BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
@@ -417,10 +510,10 @@ class BankAccountServiceImplTest {
     @Test
     public void testDepositMoney_AccountNotFound() {
         // Arrange
-        double depositAmount = 500.00;
+        long depositAmount = 50000L;
 
-        // Simulamos que la cuenta no existe
-        when(bankAccountRepository.findById(1L)).thenReturn(Optional.empty());
+        // Simulamos que la cuenta no existe: ninguna fila afectada
+        when(bankAccountRepository.depositBalance(1L, depositAmount)).thenReturn(0);
 
         // Simulamos la respuesta de error
         BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
@@ -444,6 +537,7 @@ class BankAccountServiceImplTest {
         assertNotNull(response);
         assertFalse(response.isSuccess());
         assertEquals("The account with ID: 1 does not exist.", response.getMessage());
+        verify(transactionRecorder, never()).record(any());
     }
 
     /* withdrawMoney */
@@ -451,25 +545,20 @@ class BankAccountServiceImplTest {
     @Test
     public void testWithdrawMoney_Success() {
         // Arrange
-        BankAccount existingAccount = new BankAccount(1L, "123456", 1000.00, "CHECKING", null);
-        double withdrawalAmount = 500.00;
+        BankAccount updatedAccount = new BankAccount(1L, "123456", 50000L, "CHECKING", null);
+        long withdrawalAmount = 50000L;
 
-        // Simulamos que la cuenta existe
-        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
+        // Simulamos que la actualización condicional afecta una fila
+        when(bankAccountRepository.withdrawBalance(1L, withdrawalAmount)).thenReturn(1);
 
-        // Simulamos la actualización de la cuenta
-        double updatedBalance = existingAccount.getBalance() - withdrawalAmount;
-        existingAccount.setBalance(updatedBalance);
-        when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(existingAccount);
-
-        // Simulamos el servicio de transacciones
-        doNothing().when(transactionService).addTransaction(anyString(), eq(withdrawalAmount));
+        // Simulamos la lectura del saldo actualizado
+        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(updatedAccount));
 
         // Simulamos la respuesta de éxito
         BankAccountResponseDTO successResponse = new BankAccountResponseDTO(
-                "Transaction type: CHECKING. Amount: 500.0 . Current Balance: 500.0",
+                "Transaction type: CHECKING. Amount: 500.00 . Current Balance: 500.00",
                 true,
-                existingAccount,
+                null,
                 HttpStatus.OK
         );
 
@@ -480,7 +569,8 @@ class BankAccountServiceImplTest {
         });
 
         // Simulamos la construcción de la respuesta de éxito
-        when(responseHandler.buildSuccessAccount(any(), any())).thenReturn(successResponse);
+        when(responseHandler.buildSuccessAccount("Transaction type: CHECKING. Amount: 500.00 . Current Balance: 500.00", null))
+                .thenReturn(successResponse);
 
         // Act
         BankAccountResponseDTO response = bankAccountService.withdrawMoney(1L, withdrawalAmount);
@@ -488,15 +578,17 @@ class BankAccountServiceImplTest {
         // Assert
         assertNotNull(response); // Verifica que la respuesta no es nula
         assertTrue(response.isSuccess()); // Verifica que la operación fue exitosa
-        assertEquals("Transaction type: CHECKING. Amount: 500.0 . Current Balance: 500.0", response.getMessage());
-        verify(bankAccountRepository).save(existingAccount); // Verificamos que la cuenta haya sido guardada con el nuevo balance
-        verify(transactionService).addTransaction(anyString(), eq(withdrawalAmount));
+        assertEquals("Transaction type: CHECKING. Amount: 500.00 . Current Balance: 500.00", response.getMessage());
+        verify(bankAccountRepository).withdrawBalance(1L, withdrawalAmount); // Verificamos la actualización condicional
+        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+        verify(transactionRecorder).record(argThat(transaction -> transaction.amount() == withdrawalAmount));
+        verify(accountCacheLocks).lock(Set.of(1L));
     }
 
     @Test
     public void testWithdrawMoney_InvalidAmount() {
         // Arrange
-        double invalidAmount = -500.00; // Monto inválido
+        long invalidAmount = -50000L; // Monto inválido
         BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
                 "Invalid amount.", false, null, HttpStatus.BAD_REQUEST
         );
@@ -523,14 +615,14 @@ class BankAccountServiceImplTest {
     @Test
     public void testWithdrawMoney_InsufficientFunds() {
         // Arrange
-        double withdrawalAmount = 2000.00; // Monto que excede el saldo
-        BankAccount existingAccount = new BankAccount(1L, "123456", 1000.00, "CHECKING", null); // Saldo insuficiente
+        long withdrawalAmount = 200000L; // Monto que excede el saldo
         BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
                 "Insufficient funds.", false, null, HttpStatus.BAD_REQUEST
         );
 
-        // Simulamos que la cuenta existe en el repositorio
-        when(bankAccountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
+        // Simulamos que la actualización condicional no afecta filas pero la cuenta existe
+        when(bankAccountRepository.withdrawBalance(1L, withdrawalAmount)).thenReturn(0);
+        when(bankAccountRepository.existsById(1L)).thenReturn(true);
 
         // Simulamos que el responseHandler maneja el error de fondos insuficientes
         when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
@@ -549,5 +641,174 @@ class BankAccountServiceImplTest {
         assertNotNull(response); // Aseguramos que la respuesta no sea null
         assertFalse(response.isSuccess()); // Debe fallar
         assertEquals("Insufficient funds.", response.getMessage());
+        verify(transactionRecorder, never()).record(any());
+    }
+
+    @Test
+    public void testWithdrawMoney_AccountNotFound() {
+        // Arrange
+        long withdrawalAmount = 50000L;
+        BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
+                "The account with ID: 1 does not exist.", false, null, HttpStatus.NOT_FOUND
+        );
+
+        // Simulamos que la actualización condicional no afecta filas y la cuenta no existe
+        when(bankAccountRepository.withdrawBalance(1L, withdrawalAmount)).thenReturn(0);
+        when(bankAccountRepository.existsById(1L)).thenReturn(false);
+
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get(); // Ejecuta el Supplier y devuelve el error esperado
+        });
+
+        when(responseHandler.buildErrorAccount("The account with ID: 1 does not exist.", HttpStatus.NOT_FOUND))
+                .thenReturn(errorResponse);
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.withdrawMoney(1L, withdrawalAmount);
+
+        // Assert
+        assertNotNull(response);
+        assertFalse(response.isSuccess());
+        assertEquals("The account with ID: 1 does not exist.", response.getMessage());
+    }
+
+    /* transferMoney */
+
+    @Test
+    public void testTransferMoney_Success() {
+        // Arrange
+        BankAccount source = new BankAccount(2L, "654321", 100000L, "SAVINGS", null);
+        BankAccount destination = new BankAccount(1L, "123456", 50000L, "CHECKING", null);
+        BankAccountResponseDTO successResponse = new BankAccountResponseDTO(
+                "Transaction type: transfer. Amount: 300.00 . Current Balance: 700.00", true, source, HttpStatus.OK
+        );
+
+        when(bankAccountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(destination));
+        when(bankAccountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(source));
+
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get();
+        });
+
+        when(responseHandler.buildSuccessAccount("Transaction type: transfer. Amount: 300.00 . Current Balance: 700.00", source))
+                .thenReturn(successResponse);
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.transferMoney(2L, 1L, 30000L);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals(70000L, source.getBalance());
+        assertEquals(80000L, destination.getBalance());
+
+        // Las cuentas se bloquean siempre en orden ascendente de ID
+        var inOrder = inOrder(bankAccountRepository);
+        inOrder.verify(bankAccountRepository).findByIdForUpdate(1L);
+        inOrder.verify(bankAccountRepository).findByIdForUpdate(2L);
+
+        // Se registran dos movimientos enlazados por la misma referencia
+        ArgumentCaptor<TransactionRecord> transactions = ArgumentCaptor.forClass(TransactionRecord.class);
+        verify(transactionRecorder, times(2)).record(transactions.capture());
+        TransactionRecord debit = transactions.getAllValues().get(0);
+        TransactionRecord credit = transactions.getAllValues().get(1);
+        assertEquals(TransactionType.TRANSFER_OUT, debit.type());
+        assertEquals(70000L, debit.balanceAfter());
+        assertEquals(TransactionType.TRANSFER_IN, credit.type());
+        assertEquals(80000L, credit.balanceAfter());
+        assertNotNull(debit.reference());
+        assertEquals(debit.reference(), credit.reference());
+    }
+
+    @Test
+    public void testTransferMoney_InsufficientFunds() {
+        // Arrange
+        BankAccount source = new BankAccount(1L, "123456", 10000L, "SAVINGS", null);
+        BankAccount destination = new BankAccount(2L, "654321", 50000L, "CHECKING", null);
+        BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
+                "Insufficient funds.", false, null, HttpStatus.BAD_REQUEST
+        );
+
+        when(bankAccountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(source));
+        when(bankAccountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(destination));
+
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get();
+        });
+
+        when(responseHandler.buildErrorAccount("Insufficient funds.", HttpStatus.BAD_REQUEST)).thenReturn(errorResponse);
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.transferMoney(1L, 2L, 30000L);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        assertEquals(10000L, source.getBalance());
+        assertEquals(50000L, destination.getBalance());
+        verify(transactionRecorder, never()).record(any());
+    }
+
+    @Test
+    public void testTransferMoney_SameAccount() {
+        // Arrange
+        BankAccountResponseDTO errorResponse = new BankAccountResponseDTO(
+                "Source and destination accounts must be different.", false, null, HttpStatus.BAD_REQUEST
+        );
+
+        when(responseHandler.executeSafelyAccount(any())).thenAnswer(invocation -> {
+            Supplier<BankAccountResponseDTO> supplier = invocation.getArgument(0);
+            return supplier.get();
+        });
+
+        when(responseHandler.buildErrorAccount("Source and destination accounts must be different.", HttpStatus.BAD_REQUEST))
+                .thenReturn(errorResponse);
+
+        // Act
+        BankAccountResponseDTO response = bankAccountService.transferMoney(1L, 1L, 30000L);
+
+        // Assert
+        assertFalse(response.isSuccess());
+        verify(bankAccountRepository, never()).findByIdForUpdate(anyLong());
+    }
+
+    /* applyBatch */
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testApplyBatch_MixedResults() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(1L, BatchOperationDTO.Operation.DEPOSIT, 50000L),
+                new BatchOperationDTO(1L, BatchOperationDTO.Operation.WITHDRAW, 20000L),
+                new BatchOperationDTO(2L, BatchOperationDTO.Operation.WITHDRAW, 90000L),
+                new BatchOperationDTO(3L, BatchOperationDTO.Operation.DEPOSIT, 10000L),
+                new BatchOperationDTO(1L, BatchOperationDTO.Operation.DEPOSIT, -5L)
+        );
+
+        // Simulamos el lote JDBC: la cuenta 2 no tiene fondos y la cuenta 3 no existe
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1, 0, 0}});
+        when(bankAccountRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(List.of(2L));
+        when(bankAccountRepository.findAllById(Set.of(1L)))
+                .thenReturn(List.of(new BankAccount(1L, "123456", 130000L, "CHECKING", null)));
+
+        // Act
+        List<BatchResultDTO> results = bankAccountService.applyBatch(operations);
+
+        // Assert
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Transaction type: CHECKING. Amount: 500.00 . Current Balance: 1500.00", results.get(0).getMessage());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("Transaction type: CHECKING. Amount: 200.00 . Current Balance: 1300.00", results.get(1).getMessage());
+        assertEquals("Insufficient funds.", results.get(2).getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, results.get(3).getHttpStatus());
+        assertEquals("Invalid amount.", results.get(4).getMessage());
+        verify(transactionRecorder, times(2)).record(any());
+
+        // Solo la cuenta modificada se bloquea en la cache de segundo nivel
+        verify(accountCacheLocks).lock(Set.of(1L));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountResponseDTO;
+import com.bankAccount.bankAccount.entities.IdempotencyRecord;
+import com.bankAccount.bankAccount.repository.IdempotencyRecordRepository;
+import com.bankAccount.bankAccount.services.idempotency.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    public void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, new ObjectMapper(), transactionManager, 1000, Duration.ofHours(24));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    public void testRetryReturnsOriginalResponseFromCache() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        when(idempotencyRecordRepository.findById("1:key-1")).thenReturn(Optional.empty());
+
+        // Act
+        String first = idempotencyService.execute("1:key-1", "hash-1", () -> {
+            executions.incrementAndGet();
+            return new BankAccountResponseDTO("Deposit successful", true, null, HttpStatus.OK);
+        });
+        String retry = idempotencyService.execute("1:key-1", "hash-1", () -> {
+            executions.incrementAndGet();
+            return new BankAccountResponseDTO("Deposit successful", true, null, HttpStatus.OK);
+        });
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertSame(first, retry);
+
+        // El reintento no vuelve a consultar la base de datos
+        verify(idempotencyRecordRepository, times(1)).findById("1:key-1");
+        verify(idempotencyRecordRepository, times(1)).save(argThat(record -> "hash-1".equals(record.getRequestHash())));
+
+        // El registro se guarda dentro de la transacción del movimiento
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void testStoredResponseIsReplayedAfterCacheMiss() {
+        // Arrange
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .idempotencyKey("1:key-2")
+                .requestHash("hash-2")
+                .response("{\"message\":\"Withdrawal successful\",\"success\":true,\"data\":{\"balance\":1500.00},\"httpStatus\":\"OK\"}")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(idempotencyRecordRepository.findById("1:key-2")).thenReturn(Optional.of(record));
+
+        // Act
+        String response = idempotencyService.execute("1:key-2", "hash-2", () -> {
+            throw new AssertionError("La operación no debe ejecutarse de nuevo");
+        });
+
+        // Assert: se devuelven los mismos bytes, sin perder la escala del saldo
+        assertEquals(record.getResponse(), response);
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    @Test
+    public void testServerErrorsAreNotRemembered() {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        when(idempotencyRecordRepository.findById("1:key-3")).thenReturn(Optional.empty());
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            idempotencyService.execute("1:key-3", "hash-3", () -> {
+                executions.incrementAndGet();
+                return new BankAccountResponseDTO("The account engine is busy, try again later.", false, null, HttpStatus.SERVICE_UNAVAILABLE);
+            });
+        }
+
+        // Assert
+        assertEquals(2, executions.get());
+        verify(idempotencyRecordRepository, never()).save(any());
+
+        // Lo que la operación alcanzó a escribir no se confirma
+        verify(transactionManager, times(2)).commit(argThat(TransactionStatus::isRollbackOnly));
+    }
+
+    @Test
+    public void testKeyReusedForDifferentRequestIsRejected() {
+        // Arrange
+        when(idempotencyRecordRepository.findById("1:key-4")).thenReturn(Optional.empty());
+        idempotencyService.execute("1:key-4", "hash-4",
+                () -> new BankAccountResponseDTO("Deposit successful", true, null, HttpStatus.OK));
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute("1:key-4", "other-hash", () -> {
+                    throw new AssertionError("La operación no debe ejecutarse con otra petición");
+                }));
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatusCode());
+    }
+
+    @Test
+    public void testFailedStoreRollsBackTheMovement() {
+        // Arrange
+        when(idempotencyRecordRepository.findById("1:key-5")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.save(any(IdempotencyRecord.class))).thenThrow(new IllegalStateException("Duplicate key"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("1:key-5", "hash-5",
+                () -> new BankAccountResponseDTO("Deposit successful", true, null, HttpStatus.OK)));
+
+        // Assert: sin registro no se confirma el movimiento
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    public void testRequestHashDependsOnPathAndBody() {
+        // Act
+        String deposit = idempotencyService.requestHash("POST", "/api/accounts/deposit/1", Map.of("amount", 500));
+        String sameDeposit = idempotencyService.requestHash("POST", "/api/accounts/deposit/1", Map.of("amount", 500));
+        String otherAmount = idempotencyService.requestHash("POST", "/api/accounts/deposit/1", Map.of("amount", 900));
+        String otherAccount = idempotencyService.requestHash("POST", "/api/accounts/deposit/2", Map.of("amount", 500));
+
+        // Assert
+        assertEquals(deposit, sameDeposit);
+        assertNotEquals(deposit, otherAmount);
+        assertNotEquals(deposit, otherAccount);
+    }
+}
@@ -0,0 +1,214 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
+import com.bankAccount.bankAccount.services.transaction.JournalTransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTransactionServiceTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    public void testAddTransaction() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+
+        // Act
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, 50000L, 150000L));
+
+        // Assert
+        List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
+        assertEquals(1, transactions.size());
+        assertEquals("Successful deposit to account No. 123456 for an amount of: 500.00 . Current balance: 1500.00", transactions.get(0).getMessage());
+        assertEquals(50000L, transactions.get(0).getAmount());
+        assertNotNull(transactions.get(0).getDate());
+
+        transactionService.close();
+    }
+
+    @Test
+    public void testTransactionsRollOverSegments() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            transactionService.addTransaction(TransactionRecord.of(i, "ACC-" + i, TransactionType.DEPOSIT, i, i));
+        }
+
+        // Assert
+        List<String> messages = transactionService.getTransactionsList();
+        assertEquals(20, messages.size());
+        assertTrue(messages.get(0).contains("account No. ACC-0 "));
+        assertTrue(messages.get(19).contains("account No. ACC-19 "));
+        assertTrue(countSegments() > 1);
+
+        transactionService.close();
+    }
+
+    @Test
+    public void testRecoverAfterRestart() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        for (int i = 0; i < 10; i++) {
+            transactionService.addTransaction(TransactionRecord.of(i, "ACC-" + i, TransactionType.WITHDRAWAL, i, i));
+        }
+        transactionService.close();
+
+        // Act
+        JournalTransactionService recovered = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        recovered.addTransaction(TransactionRecord.transfer(10L, "ACC-10", TransactionType.TRANSFER_IN, 1000L, 1000L, "ref-1"));
+
+        // Assert
+        List<String> messages = recovered.getTransactionsList();
+        assertEquals(11, messages.size());
+        assertTrue(messages.get(9).startsWith("Successful withdrawal to account No. ACC-9 "));
+        assertTrue(messages.get(10).startsWith("Successful transfer ref-1 to account No. ACC-10 "));
+
+        recovered.close();
+    }
+
+    @Test
+    public void testAccountHistoryIsRebuiltAfterRestart() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        for (int i = 0; i < 12; i++) {
+            transactionService.addTransaction(new TransactionRecord(i % 2, "ACC-" + (i % 2), TransactionType.DEPOSIT, i, i, 1_000L + i, null));
+        }
+        transactionService.close();
+
+        // Act
+        JournalTransactionService recovered = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        TransactionPageDTO first = recovered.getAccountTransactions(1L, null, 4, null, null);
+        TransactionPageDTO second = recovered.getAccountTransactions(1L, first.getNextCursor(), 4, null, null);
+
+        // Assert
+        assertEquals(List.of(11L, 9L, 7L, 5L), first.getData().stream().map(TransactionRecord::amount).toList());
+        assertEquals(List.of(3L, 1L), second.getData().stream().map(TransactionRecord::amount).toList());
+        assertNull(second.getNextCursor());
+
+        recovered.close();
+    }
+
+    @Test
+    public void testPagingStopsAtTheBoundedIndex() throws IOException {
+        // Arrange: el índice solo guarda las 3 entradas más recientes de cada cuenta
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 3);
+        for (int i = 0; i < 12; i++) {
+            transactionService.addTransaction(new TransactionRecord(i % 2, "ACC-" + (i % 2), TransactionType.DEPOSIT, i, i, 1_000L + i, null));
+        }
+
+        // Act
+        TransactionPageDTO first = transactionService.getAccountTransactions(1L, null, 2, null, null);
+        TransactionPageDTO second = transactionService.getAccountTransactions(1L, first.getNextCursor(), 2, null, null);
+        TransactionPageDTO older = transactionService.getAccountTransactions(1L, "1005-0", 2, null, null);
+
+        // Assert: la ventana indexada termina la paginación y un cursor anterior se rechaza sin recorrer los segmentos
+        assertEquals(List.of(11L, 9L), first.getData().stream().map(TransactionRecord::amount).toList());
+        assertEquals(List.of(7L), second.getData().stream().map(TransactionRecord::amount).toList());
+        assertNull(second.getNextCursor());
+        assertFalse(second.isHasNext());
+        assertEquals(HttpStatus.BAD_REQUEST, older.getHttpStatus());
+
+        transactionService.close();
+    }
+
+    @Test
+    public void testRecoverDiscardsTornRecord() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        transactionService.addTransaction(TransactionRecord.of(1L, "ACC-1", TransactionType.DEPOSIT, 10000L, 10000L));
+        transactionService.addTransaction(TransactionRecord.of(2L, "ACC-2", TransactionType.DEPOSIT, 20000L, 20000L));
+        transactionService.close();
+
+        // Simulamos una escritura incompleta corrompiendo el último byte del segundo registro
+        Path segment = journalDir.resolve("journal-00000000.seg");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int firstRecordSize = Integer.BYTES * 2 + header.flip().getInt();
+
+            header.clear();
+            channel.read(header, firstRecordSize);
+            int secondRecordEnd = firstRecordSize + Integer.BYTES * 2 + header.flip().getInt();
+
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), secondRecordEnd - 1);
+        }
+
+        // Act
+        JournalTransactionService recovered = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        recovered.addTransaction(TransactionRecord.of(3L, "ACC-3", TransactionType.DEPOSIT, 30000L, 30000L));
+
+        // Assert
+        List<TransactionResponseDTO> transactions = recovered.getAllTransactions();
+        assertEquals(List.of(10000L, 30000L), transactions.stream().map(TransactionResponseDTO::getAmount).toList());
+
+        recovered.close();
+    }
+
+    @Test
+    public void testBatchWriteKeepsOrder() throws IOException {
+        // Arrange
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, true, 1000);
+        List<TransactionRecord> batch = List.of(
+                TransactionRecord.of(1L, "ACC-1", TransactionType.DEPOSIT, 100L, 100L),
+                TransactionRecord.of(1L, "ACC-1", TransactionType.WITHDRAWAL, 40L, 60L),
+                TransactionRecord.of(2L, "ACC-2", TransactionType.DEPOSIT, 500L, 500L),
+                TransactionRecord.of(2L, "ACC-2", TransactionType.WITHDRAWAL, 500L, 0L),
+                TransactionRecord.of(3L, "ACC-3", TransactionType.DEPOSIT, 700L, 700L)
+        );
+
+        // Act
+        transactionService.addTransactions(batch);
+
+        // Assert
+        List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
+        assertEquals(List.of(100L, 40L, 500L, 500L, 700L), transactions.stream().map(TransactionResponseDTO::getAmount).toList());
+
+        transactionService.close();
+    }
+
+    @Test
+    public void testOversizedTextIsRejectedBeforeWriting() throws IOException {
+        // Arrange: la longitud de los textos se guarda en un short
+        JournalTransactionService transactionService = new JournalTransactionService(journalDir.toString(), SEGMENT_SIZE, false, 1000);
+        List<TransactionRecord> batch = List.of(
+                TransactionRecord.of(1L, "ACC-1", TransactionType.DEPOSIT, 100L, 100L),
+                TransactionRecord.transfer(2L, "ACC-2", TransactionType.TRANSFER_IN, 100L, 100L, "r".repeat(Short.MAX_VALUE + 1))
+        );
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(batch));
+
+        // Assert: no se escribe ningún registro del lote
+        assertTrue(exception.getMessage().contains("reference"));
+        assertTrue(transactionService.getAllTransactions().isEmpty());
+
+        transactionService.close();
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.services.auth.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    // Un hilo y una posición de cola: la tercera tarea simultánea se rechaza
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 100);
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    @Test
+    public void testRunsTaskOffCallerThread() {
+        // Act
+        String thread = executor.submit(() -> Thread.currentThread().getName(), () -> "busy").join();
+
+        // Assert
+        assertTrue(thread.startsWith("password-hash-"));
+    }
+
+    @Test
+    public void testRejectsImmediatelyWhenSaturated() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit(() -> await(release), () -> "busy");
+        CompletableFuture<String> queued = executor.submit(() -> await(release), () -> "busy");
+
+        // Act
+        CompletableFuture<String> rejected = executor.submit(() -> "hashed", () -> "busy");
+
+        // Assert
+        assertTrue(rejected.isDone());
+        assertEquals("busy", rejected.join());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+        assertEquals(1, registry.get("auth.hashing.rejected").functionCounter().count());
+
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStopAnswersQueuedTasksAsBusy() throws Exception {
+        // Arrange: la tarea en curso supera el plazo de cierre y otra queda en cola
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit(() -> await(release), () -> "busy");
+        CompletableFuture<String> queued = executor.submit(() -> "hashed", () -> "busy");
+
+        // Act
+        executor.stop();
+
+        // Assert: ningún futuro queda pendiente tras el cierre
+        assertEquals("busy", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("busy", executor.submit(() -> "hashed", () -> "busy").join());
+        release.countDown();
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,118 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
+import com.bankAccount.bankAccount.services.transaction.TransactionRecorder;
+import com.bankAccount.bankAccount.services.transaction.TransactionService;
+import com.bankAccount.bankAccount.services.transaction.TransactionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransactionRecorderTest {
+
+    @Test
+    public void testRecordsAreWrittenInOrder() throws InterruptedException {
+        // Arrange
+        TransactionServiceImpl transactionService = new TransactionServiceImpl();
+        TransactionRecorder recorder = new TransactionRecorder(transactionService, 1024, 100, TransactionRecorder.BackpressurePolicy.BLOCK);
+
+        // Act
+        for (int i = 0; i < 5000; i++) {
+            recorder.record(TransactionRecord.of(i, "ACC-" + i, TransactionType.DEPOSIT, i, i));
+        }
+        recorder.flush();
+
+        // Assert
+        List<String> messages = transactionService.getTransactionsList();
+        assertEquals(5000, messages.size());
+        assertTrue(messages.get(0).contains("account No. ACC-0 "));
+        assertTrue(messages.get(4999).contains("account No. ACC-4999 "));
+
+        recorder.stop();
+    }
+
+    @Test
+    public void testRecordsInsideTransactionAreQueuedAfterCommit() throws InterruptedException {
+        // Arrange
+        TransactionServiceImpl transactionService = new TransactionServiceImpl();
+        TransactionRecorder recorder = new TransactionRecorder(transactionService, 1024, 100, TransactionRecorder.BackpressurePolicy.BLOCK);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        List<TransactionSynchronization> synchronizations;
+        try {
+            recorder.record(TransactionRecord.of(1L, "ACC-1", TransactionType.DEPOSIT, 100L, 100L));
+            recorder.record(TransactionRecord.of(1L, "ACC-1", TransactionType.DEPOSIT, 100L, 200L));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        recorder.flush();
+
+        // Assert: nada se encola antes de confirmar y basta un callback por transacción
+        assertEquals(0, transactionService.getTransactionsList().size());
+        assertEquals(1, synchronizations.size());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        recorder.flush();
+        assertEquals(2, transactionService.getTransactionsList().size());
+
+        recorder.stop();
+    }
+
+    @Test
+    public void testRecordsOfRolledBackTransactionAreDiscarded() throws InterruptedException {
+        // Arrange
+        TransactionServiceImpl transactionService = new TransactionServiceImpl();
+        TransactionRecorder recorder = new TransactionRecorder(transactionService, 1024, 100, TransactionRecorder.BackpressurePolicy.BLOCK);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        try {
+            recorder.record(TransactionRecord.of(1L, "ACC-1", TransactionType.WITHDRAWAL, 100L, 0L));
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        recorder.stop();
+
+        // Assert
+        assertEquals(0, transactionService.getTransactionsList().size());
+    }
+
+    @Test
+    public void testCallerRunsWritesSynchronouslyWhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionService slowService = mock(TransactionService.class);
+        AtomicLong recorded = new AtomicLong();
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("transaction-recorder")) release.await(5, TimeUnit.SECONDS);
+            recorded.addAndGet(invocation.<List<?>>getArgument(0).size());
+            return null;
+        }).when(slowService).addTransactions(anyList());
+
+        TransactionRecorder recorder = new TransactionRecorder(slowService, 1, 1, TransactionRecorder.BackpressurePolicy.CALLER_RUNS);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            recorder.record(TransactionRecord.of(1L, "ACC-1", TransactionType.WITHDRAWAL, 100L, 0L));
+        }
+        release.countDown();
+        recorder.stop();
+
+        // Assert
+        assertEquals(10, recorded.get());
+    }
+}
@@ -1,11 +1,25 @@
 package com.bankAccount.bankAccount.services;
 
+import com.bankAccount.bankAccount.dto.transaction.TransactionPageDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionRecord;
 import com.bankAccount.bankAccount.dto.transaction.TransactionResponseDTO;
+import com.bankAccount.bankAccount.dto.transaction.TransactionType;
 import com.bankAccount.bankAccount.services.transaction.TransactionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,11 +34,11 @@ class TransactionServiceImplTest {
     @Test
     public void testAddTransaction() {
         // Arrange
-        String message = "Deposit of $500";
-        double amount = 500.0;
+        long amount = 50000L;
+        TransactionRecord record = TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, amount, 150000L);
 
         // Act
-        transactionService.addTransaction(message, amount);
+        transactionService.addTransaction(record);
 
         // Assert
         List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
@@ -32,15 +46,16 @@ class TransactionServiceImplTest {
         assertEquals(1, transactions.size());
 
         TransactionResponseDTO transaction = transactions.get(0);
-        assertTrue(transactions.stream().anyMatch(t -> t.getMessage().equals(message) && t.getAmount() == amount));
+        assertEquals("Successful deposit to account No. 123456 for an amount of: 500.00 . Current balance: 1500.00", transaction.getMessage());
+        assertEquals(amount, transaction.getAmount());
         assertNotNull(transaction.getDate());
     }
 
     @Test
     public void testGetAllTransactions() {
         // Arrange
-        transactionService.addTransaction("Deposit of $100", 100.0);
-        transactionService.addTransaction("Withdrawal of $50", 50.0);
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, 10000L, 10000L));
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.WITHDRAWAL, 5000L, 5000L));
 
         // Act
         List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
@@ -49,15 +64,15 @@ class TransactionServiceImplTest {
         assertNotNull(transactions);
         assertEquals(2, transactions.size());
 
-        assertTrue(transactions.stream().anyMatch(t -> t.getMessage().equals("Deposit of $100")));
-        assertTrue(transactions.stream().anyMatch(t -> t.getMessage().equals("Withdrawal of $50")));
+        assertTrue(transactions.stream().anyMatch(t -> t.getMessage().startsWith("Successful deposit") && t.getAmount() == 10000L));
+        assertTrue(transactions.stream().anyMatch(t -> t.getMessage().startsWith("Successful withdrawal") && t.getAmount() == 5000L));
     }
 
     @Test
     public void testGetTransactionsList() {
         // Arrange
-        transactionService.addTransaction("Deposit of $100", 100.0);
-        transactionService.addTransaction("Withdrawal of $50", 50.0);
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, 10000L, 10000L));
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.WITHDRAWAL, 5000L, 5000L));
 
         // Act
         List<String> transactionMessages = transactionService.getTransactionsList();
@@ -66,7 +81,121 @@ class TransactionServiceImplTest {
         assertNotNull(transactionMessages);
         assertEquals(2, transactionMessages.size());
 
-        assertTrue(transactionMessages.stream().anyMatch(message -> message.equals("Deposit of $100")));
-        assertTrue(transactionMessages.stream().anyMatch(message -> message.equals("Withdrawal of $50")));
+        assertEquals("Successful deposit to account No. 123456 for an amount of: 100.00 . Current balance: 100.00", transactionMessages.get(0));
+        assertEquals("Successful withdrawal to account No. 123456 for an amount of: 50.00 . Current balance: 50.00", transactionMessages.get(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAccountTransactionsPaginatesNewestFirst() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            transactionService.addTransaction(new TransactionRecord(1L, "123456", TransactionType.DEPOSIT, i, i, 1_000L + i, null));
+            transactionService.addTransaction(new TransactionRecord(2L, "654321", TransactionType.DEPOSIT, i, i, 1_000L + i, null));
+        }
+
+        // Act
+        TransactionPageDTO first = transactionService.getAccountTransactions(1L, null, 10, null, null);
+        TransactionPageDTO second = transactionService.getAccountTransactions(1L, first.getNextCursor(), 10, null, null);
+        TransactionPageDTO last = transactionService.getAccountTransactions(1L, second.getNextCursor(), 10, null, null);
+
+        // Assert
+        assertEquals(List.of(24L, 23L, 22L, 21L, 20L, 19L, 18L, 17L, 16L, 15L), first.getData().stream().map(TransactionRecord::amount).toList());
+        assertEquals(14L, second.getData().get(0).amount());
+        assertEquals(5, last.getData().size());
+        assertTrue(first.isHasNext());
+        assertTrue(second.isHasNext());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertTrue(first.getData().stream().allMatch(transaction -> transaction.accountId() == 1L));
+    }
+
+    @Test
+    public void testGetAccountTransactionsFiltersByTimeRange() {
+        // Arrange
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int day = 0; day < 10; day++) {
+            long timestamp = base.plusDays(day).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            transactionService.addTransaction(new TransactionRecord(1L, "123456", TransactionType.WITHDRAWAL, day, day, timestamp, null));
+        }
+
+        // Act
+        TransactionPageDTO page = transactionService.getAccountTransactions(1L, null, 50, base.plusDays(3), base.plusDays(6));
+
+        // Assert
+        assertEquals(List.of(5L, 4L, 3L), page.getData().stream().map(TransactionRecord::amount).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testGetAccountTransactionsRejectsInvalidCursor() {
+        // Arrange
+        transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, 100L, 100L));
+
+        // Act
+        TransactionPageDTO page = transactionService.getAccountTransactions(1L, "not-a-cursor", 10, null, null);
+
+        // Assert
+        assertFalse(page.isSuccess());
+        assertEquals(HttpStatus.BAD_REQUEST, page.getHttpStatus());
+    }
+
+    @Test
+    public void testForEachTransactionVisitsInOrder() {
+        // Arrange
+        for (int i = 0; i < 3000; i++) {
+            transactionService.addTransaction(TransactionRecord.of(1L, "123456", TransactionType.DEPOSIT, i, i));
+        }
+
+        // Act
+        List<Long> amounts = new ArrayList<>();
+        transactionService.forEachTransaction(transaction -> amounts.add(transaction.amount()));
+
+        // Assert
+        assertEquals(3000, amounts.size());
+        assertEquals(0L, amounts.get(0));
+        assertEquals(2999L, amounts.get(2999));
+    }
+
+    @Test
+    public void testConcurrentAddTransaction() throws Exception {
+        // Arrange
+        int threads = 16;
+        int transactionsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < transactionsPerThread; i++) {
+                    transactionService.addTransaction(TransactionRecord.of(writer, writer + "-" + i, TransactionType.DEPOSIT, i, i));
+                    if (i % 1_000 == 0) {
+                        // Las lecturas concurrentes nunca deben ver entradas incompletas
+                        transactionService.getAllTransactions().forEach(transaction -> assertNotNull(transaction.getMessage()));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : writers) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        List<String> messages = transactionService.getTransactionsList();
+        assertEquals(threads * transactionsPerThread, messages.size());
+
+        Set<String> unique = new HashSet<>(messages);
+        assertEquals(threads * transactionsPerThread, unique.size());
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            assertTrue(unique.stream().anyMatch(message -> message.contains("account No. " + writer + "-0 ")));
+            assertTrue(unique.stream().anyMatch(message -> message.contains("account No. " + writer + "-" + (transactionsPerThread - 1) + " ")));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.services.auth.UserDetailsCache;
+import com.bankAccount.bankAccount.services.user.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+
+    private final UserDetailsCache cache = new UserDetailsCache(true, 100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetails> loader = email -> {
+        loads.incrementAndGet();
+        return User.withUsername(email).password("hashed").authorities(List.of()).build();
+    };
+
+    @Test
+    public void testRepeatedLookupLoadsOnce() {
+        // Act
+        UserDetails first = cache.get("john.doe@example.com", loader);
+        UserDetails second = cache.get("john.doe@example.com", loader);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("hashed", second.getPassword());
+
+        // Cada llamada recibe su propia copia
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testErasedCredentialsDoNotLeakIntoCache() {
+        // Arrange
+        User first = (User) cache.get("john.doe@example.com", loader);
+
+        // Act
+        first.eraseCredentials();
+
+        // Assert
+        assertEquals("hashed", cache.get("john.doe@example.com", loader).getPassword());
+    }
+
+    @Test
+    public void testUserChangedEventInvalidatesEntry() {
+        // Arrange
+        cache.get("john.doe@example.com", loader);
+
+        // Act
+        cache.onUserChanged(new UserChangedEvent(1L, "john.doe@example.com"));
+        cache.get("john.doe@example.com", loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testUnknownUserIsNotCached() {
+        // Arrange
+        Function<String, UserDetails> missing = email -> {
+            loads.incrementAndGet();
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        };
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("ghost@example.com", missing));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("ghost@example.com", missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Function<String, UserDetails> slowLoader = email -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(email);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // Act
+            List<Future<UserDetails>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("john.doe@example.com", slowLoader);
+                }));
+            }
+            start.countDown();
+            for (Future<UserDetails> result : results) {
+                assertEquals("john.doe@example.com", result.get(5, TimeUnit.SECONDS).getUsername());
+            }
+
+            // Assert
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() {
+        // Arrange
+        UserDetailsCache disabled = new UserDetailsCache(false, 100, Duration.ofMinutes(5));
+
+        // Act
+        disabled.get("john.doe@example.com", loader);
+        disabled.get("john.doe@example.com", loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertTrue(disabled.stats().isEmpty());
+    }
+}
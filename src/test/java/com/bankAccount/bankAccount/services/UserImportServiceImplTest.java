@@ -0,0 +1,189 @@
+package com.bankAccount.bankAccount.services;
+
+import com.bankAccount.bankAccount.dto.user.UserImportResultDTO;
+import com.bankAccount.bankAccount.entities.User;
+import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.user.UserImportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    private static final String LEGACY_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3ZsZXgj2Z1ReKzTHXjBk8XW";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    public void setUp() {
+        userImportService = new UserImportServiceImpl(userRepository, passwordEncoder, entityManager, transactionManager, 2, 2, 10);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        userImportService.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportUsers_MixedRows() {
+        // Arrange
+        String csv = String.join("\n",
+                "identificationNumber,name,email,password",
+                "1001,John Doe,john.doe@example.com,secret1",
+                "1002,\"Smith, Jane\",jane.smith@example.com,secret2",
+                "1003,Taken,taken@example.com,secret3",
+                "1004,Repeated,john.doe@example.com,secret4",
+                "1005,Missing,,secret5",
+                "1006,Legacy,legacy@example.com," + LEGACY_HASH,
+                "1007,Broken");
+
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+
+        // saveAll recibe una lista nueva por bloque, así que se copia al momento de la llamada
+        List<User> saved = new ArrayList<>();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(7, result.getRowsRead());
+        assertEquals(3, result.getImported());
+        assertEquals(4, result.getFailed());
+
+        // Las filas se numeran contando la cabecera
+        assertEquals(List.of(4L, 5L, 6L, 8L), result.getErrors().stream().map(error -> error.getRow()).toList());
+        assertEquals("Email already in use", result.getErrors().get(0).getMessage());
+        assertEquals("Email already in use", result.getErrors().get(1).getMessage());
+        assertEquals("Missing required field.", result.getErrors().get(2).getMessage());
+
+        assertEquals(3, saved.size());
+        assertEquals("Smith, Jane", saved.get(1).getName());
+        assertEquals("hashed-secret1", saved.get(0).getPassword());
+        assertEquals(LEGACY_HASH, saved.get(2).getPassword());
+
+        // Bloques de 2 filas válidas: [John, Jane] y [Legacy]
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).clear();
+        verify(passwordEncoder, never()).encode(LEGACY_HASH);
+    }
+
+    @Test
+    public void testImportUsers_EmailsAreComparedIgnoringCase() {
+        // Arrange
+        String csv = String.join("\n",
+                "2001,Existing,Taken@Example.com," + LEGACY_HASH,
+                "2002,First,New.User@example.com," + LEGACY_HASH,
+                "2003,Second,new.user@EXAMPLE.com," + LEGACY_HASH);
+
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        List<User> saved = new ArrayList<>();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: solo se importa la primera aparición y el email conserva su forma original
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(1L, 3L), result.getErrors().stream().map(error -> error.getRow()).toList());
+        assertTrue(result.getErrors().stream().allMatch(error -> error.getMessage().equals("Email already in use")));
+        assertEquals("New.User@example.com", saved.get(0).getEmail());
+    }
+
+    @Test
+    public void testImportUsers_ChunkFailureReportsEveryRow() {
+        // Arrange
+        String csv = "1001,John Doe,john.doe@example.com,secret1\n1002,Jane Smith,jane.smith@example.com,secret2";
+
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Database unavailable"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: sin cabecera la primera línea también es una fila de datos
+        assertEquals(2, result.getRowsRead());
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals("Error: Database unavailable", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void testImportUsers_ConflictInChunkRejectsOnlyThatRow() {
+        // Arrange: jane se registró con otras mayúsculas después de cargar los emails existentes
+        String csv = "1001,John Doe,john.doe@example.com," + LEGACY_HASH + "\n1002,Jane Smith,jane.smith@example.com," + LEGACY_HASH;
+
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        when(userRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Unique index violation"));
+        when(userRepository.existsByEmailIgnoreCase("john.doe@example.com")).thenReturn(false);
+        when(userRepository.existsByEmailIgnoreCase("jane.smith@example.com")).thenReturn(true);
+        List<User> saved = new ArrayList<>();
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: el bloque se reintenta fila a fila y solo se rechaza la fila en conflicto
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertEquals("Email already in use", result.getErrors().get(0).getMessage());
+        assertEquals(List.of("john.doe@example.com"), saved.stream().map(User::getEmail).toList());
+    }
+
+    @Test
+    public void testStopFailsRowsInsteadOfLeavingThemPending() throws Exception {
+        // Arrange
+        userImportService.stop();
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream("1001,John Doe,john.doe@example.com,secret1".getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: con el pool cerrado la fila falla en lugar de esperar un hash que nunca llega
+        assertEquals(0, result.getImported());
+        assertEquals("Error: User import is shutting down", result.getErrors().get(0).getMessage());
+        verifyNoInteractions(passwordEncoder);
+    }
+}
@@ -1,8 +1,12 @@
 package com.bankAccount.bankAccount.services;
 
+import com.bankAccount.bankAccount.dto.user.UserDTO;
 import com.bankAccount.bankAccount.dto.user.UserResponseDTO;
 import com.bankAccount.bankAccount.entities.User;
 import com.bankAccount.bankAccount.repository.UserRepository;
+import com.bankAccount.bankAccount.services.auth.PasswordHashingExecutor;
+import com.bankAccount.bankAccount.services.auth.TokenVersionRegistry;
+import com.bankAccount.bankAccount.services.user.UserChangedEvent;
 import com.bankAccount.bankAccount.services.user.UserServiceImpl;
 import com.bankAccount.bankAccount.utils.ResponseHandler;
 import org.junit.jupiter.api.Test;
@@ -10,11 +14,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,24 +43,34 @@ class UserServiceImplTest {
     @Mock
     private ResponseHandler responseHandler;
 
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     /* getAllUsers */
     @Test
     public void testGetAllUsers() {
         // Arrange
         // Arrange
-        List<User> mockUsers = List.of(
-                new User(1, "12345", "John Doe", "johndoe@example.com", "securePassword123"),
-                new User(2, "67890", "Jane Smith", "janesmith@example.com", "securePassword123")
+        List<UserDTO> mockUsers = List.of(
+                new UserDTO(1L, "12345", "John Doe", "johndoe@example.com"),
+                new UserDTO(2L, "67890", "Jane Smith", "janesmith@example.com")
         );
-        when(userRepository.findAll()).thenReturn(mockUsers);
+        when(userRepository.findUsersAfter(0L, Limit.of(2))).thenReturn(mockUsers);
 
         // Act
-        List<User> users = userService.getAllUsers();
+        List<UserDTO> users = userService.getAllUsers(0L, 2);
 
         // Assert
         assertEquals(2, users.size());
         assertEquals("John Doe", users.get(0).getName());
         assertEquals("Jane Smith", users.get(1).getName());
+        verify(userRepository, never()).findAll();
     }
 
     /* RegisterUser */
@@ -63,12 +80,12 @@ class UserServiceImplTest {
         String rawPassword = "securePassword123"; // Contraseña en texto claro
         String encodedPassword = "hashedPassword123";
 
-        User newUser = new User(0, "54321", "Alice Johnson", "alice@example.com", rawPassword);
-        User savedUser = new User(1, "54321", "Alice Johnson", "alice@example.com", encodedPassword);
+        User newUser = new User(0, "54321", "Alice Johnson", "alice@example.com", rawPassword, 0);
+        User savedUser = new User(1, "54321", "Alice Johnson", "alice@example.com", encodedPassword, 0);
 
         UserResponseDTO successResponse = new UserResponseDTO("User created successfully", true, savedUser, HttpStatus.OK);
 
-        when(userRepository.existsByEmail(newUser.getEmail())).thenReturn(false); // Email no en uso
+        when(userRepository.existsByEmailIgnoreCase(newUser.getEmail())).thenReturn(false); // Email no en uso
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
@@ -96,12 +113,12 @@ class UserServiceImplTest {
     @Test
     public void testRegisterUser_Failure_EmailAlreadyInUse() {
         // Arrange
-        User newUser = new User(0, "54321", "Alice Johnson", "alice@example.com", "securePassword123");
+        User newUser = new User(0, "54321", "Alice Johnson", "alice@example.com", "securePassword123", 0);
 
         UserResponseDTO errorResponse = new UserResponseDTO("Email already in use", false, null, HttpStatus.BAD_REQUEST);
 
         // Simulación de las dependencias
-        when(userRepository.existsByEmail(newUser.getEmail())).thenReturn(true); // Simula que el email ya está en uso
+        when(userRepository.existsByEmailIgnoreCase(newUser.getEmail())).thenReturn(true); // Simula que el email ya está en uso
 
         // Mock del responseHandler para ejecutar el Supplier y devolver el resultado esperado
         doAnswer(invocation -> {
@@ -121,12 +138,33 @@ class UserServiceImplTest {
         assertEquals("Email already in use", response.getMessage());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRegisterUserAsync_HashingPoolFull() {
+        // Arrange
+        User newUser = new User(0, "54321", "Alice Johnson", "alice@example.com", "securePassword123", 0);
+        UserResponseDTO busyResponse = new UserResponseDTO("Too many registrations in progress, try again later.", false, null, HttpStatus.SERVICE_UNAVAILABLE);
+
+        // El pool rechaza la tarea y se usa la respuesta de ocupado
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<UserResponseDTO>) invocation.getArgument(1)).get()));
+        when(responseHandler.buildErrorUser("Too many registrations in progress, try again later.", HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(busyResponse);
+
+        // Act
+        UserResponseDTO response = userService.registerUserAsync(newUser).join();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getHttpStatus());
+        verifyNoInteractions(passwordEncoder, userRepository);
+    }
+
     /* updateUser */
     @Test
     public void testUpdateUser_Success() {
         // Arrange
-        User existingUser = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123");
-        User updatedUser = new User(1, "54321", "Alice Smith", "alice.smith@example.com", "securePassword123");
+        User existingUser = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123", 0);
+        User updatedUser = new User(1, "54321", "Alice Smith", "alice.smith@example.com", "securePassword123", 0);
 
         UserResponseDTO successResponse = new UserResponseDTO("User updated successfully", true, updatedUser, HttpStatus.OK);
 
@@ -150,12 +188,19 @@ class UserServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("User updated successfully", response.getMessage());
         assertEquals("Alice Smith", ((User) response.getData()).getName());
+
+        // El email cambió, así que los tokens emitidos con el anterior se revocan
+        assertEquals(1, existingUser.getTokenVersion());
+        verify(tokenVersionRegistry).revoke(1L);
+
+        // La cache de principales se invalida con el email anterior
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "alice@example.com"));
     }
 
     @Test
     public void testUpdateUser_UserNotFound() {
         // Arrange
-        User updatedUser = new User(1, "54321", "Alice Smith", "alice.smith@example.com", "securePassword123");
+        User updatedUser = new User(1, "54321", "Alice Smith", "alice.smith@example.com", "securePassword123", 0);
 
         UserResponseDTO errorResponse = new UserResponseDTO("The user with ID: 1 does not exist.", false, null, HttpStatus.NOT_FOUND);
 
@@ -183,7 +228,7 @@ class UserServiceImplTest {
     @Test
     public void testDeleteUser_Success() {
         // Arrange
-        User existingUser = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123");
+        User existingUser = new User(1, "54321", "Alice Johnson", "alice@example.com", "securePassword123", 0);
         UserResponseDTO successResponse = new UserResponseDTO("User deleted successfully", true, null, HttpStatus.OK);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
@@ -206,6 +251,8 @@ class UserServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("User deleted successfully", response.getMessage());
         verify(userRepository).deleteById(1L);
+        verify(tokenVersionRegistry).revoke(1L);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "alice@example.com"));
     }
 
     @Test
@@ -0,0 +1,49 @@
+package com.bankAccount.bankAccount.utils;
+
+import com.bankAccount.bankAccount.dto.bankAccount.AmountRequestDTO;
+import com.bankAccount.bankAccount.dto.bankAccount.BankAccountDTO;
+import com.bankAccount.bankAccount.utils.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testToMinorUnitsAndBack() {
+        assertEquals(150075L, Money.toMinorUnits(new BigDecimal("1500.75")));
+        assertEquals(new BigDecimal("1500.75"), Money.toDecimal(150075L));
+        assertEquals("0.10", Money.format(10L));
+    }
+
+    @Test
+    public void testToMinorUnitsRejectsExtraDecimals() {
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("10.005")));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        // Arrange
+        BankAccountDTO account = new BankAccountDTO(1L, "123456", 100010L, "Savings");
+
+        // Act
+        String json = objectMapper.writeValueAsString(account);
+        AmountRequestDTO amount = objectMapper.readValue("{\"amount\": 0.1}", AmountRequestDTO.class);
+
+        // Assert
+        assertTrue(json.contains("\"balance\":1000.10"));
+        assertEquals(10L, amount.getAmount());
+    }
+
+    @Test
+    public void testJsonRejectsExtraDecimals() {
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"amount\": 0.001}", AmountRequestDTO.class));
+    }
+}